@@ -0,0 +1,118 @@
+package com.lsiproject.app;
+
+import java.util.Random;
+
+/**
+ * Corpus fixes des bancs d'essai : la graine dépend seulement de la taille,
+ * les mêmes grilles sont donc mesurées d'une exécution (et d'une version) à l'autre.
+ *
+ * - solutions : grilles complètes tirées par GridSampler ;
+ * - grilles partielles : solutions dont EMPTY_RATIO des cases sont vidées, en ne retirant que des cases
+ *   que la propagation (R1/R2/R3) retrouve seule. Ces grilles restent résolubles par checkResolvability
+ *   en un temps raisonnable jusqu'à 20x20, ce qui n'est pas le cas de grilles minimales ;
+ * - grilles de recherche : grilles minimales de PuzzleGenerator (solution unique) dont on rend des cases de la
+ *   solution jusqu'à SEARCH_EMPTY_RATIO de cases vides, sans jamais les rendre déductibles par la propagation.
+ *   La recherche doit donc brancher (et l'ordre LCV compte), en restant de l'ordre de la milliseconde
+ *   à la seconde jusqu'à 14x14 ; une grille minimale 10x10 demande déjà plusieurs secondes.
+ */
+final class BenchmarkCorpus {
+
+    static final long SEED = 20240601L;
+    static final int GRIDS = 16;
+    static final double EMPTY_RATIO = 0.3;
+    static final double SEARCH_EMPTY_RATIO = 0.5;
+
+    private BenchmarkCorpus() {}
+
+    static BinairoGrid[] solutions(int size) {
+        GridSampler sampler = new GridSampler(SEED + size);
+        BinairoGrid[] grids = new BinairoGrid[GRIDS];
+        for (int i = 0; i < GRIDS; i++) {
+            grids[i] = sampler.sample(size);
+        }
+        return grids;
+    }
+
+    static BinairoGrid[] puzzles(int size) {
+        BinairoGrid[] solutions = solutions(size);
+        Random random = new Random(SEED ^ size);
+        BinairoGrid[] grids = new BinairoGrid[GRIDS];
+        for (int i = 0; i < GRIDS; i++) {
+            grids[i] = removeDeducibleCells(solutions[i], random);
+        }
+        return grids;
+    }
+
+    static BinairoGrid[] searchPuzzles(int size) {
+        PuzzleGenerator generator = new PuzzleGenerator(SEED + size);
+        Random random = new Random(SEED ^ size);
+        BinairoGrid[] grids = new BinairoGrid[GRIDS];
+        for (int i = 0; i < GRIDS; i++) {
+            grids[i] = restoreClues(generator.generate(size), random);
+        }
+        return grids;
+    }
+
+    private static BinairoGrid restoreClues(GridResolution minimal, Random random) {
+        BinairoGrid puzzle = new BinairoGrid(minimal.getInitialGrid());
+        BinairoGrid solution = minimal.getSolution();
+        int n = puzzle.getSize();
+        int empty = 0;
+        for (int cell = 0; cell < n * n; cell++) {
+            if (puzzle.getValue(cell / n, cell % n) == BinairoGrid.EMPTY) empty++;
+        }
+
+        int maxEmpty = (int) (n * n * SEARCH_EMPTY_RATIO);
+        for (int cell : shuffledCells(n, random)) {
+            if (empty <= maxEmpty) break;
+            int r = cell / n;
+            int c = cell % n;
+            if (puzzle.getValue(r, c) != BinairoGrid.EMPTY) continue;
+            puzzle.setValue(r, c, solution.getValue(r, c));
+            BitboardState state = BitboardState.fromGrid(puzzle);
+            if (state.propagate() && state.isFull()) {
+                puzzle.setValue(r, c, BinairoGrid.EMPTY); // Cet indice rendrait la grille déductible
+            } else {
+                empty--;
+            }
+        }
+        puzzle.resetDomainsForUnassignedCells();
+        return puzzle;
+    }
+
+    private static int[] shuffledCells(int n, Random random) {
+        int[] order = new int[n * n];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private static BinairoGrid removeDeducibleCells(BinairoGrid solution, Random random) {
+        int n = solution.getSize();
+        BinairoGrid puzzle = new BinairoGrid(solution);
+        int[] order = shuffledCells(n, random);
+
+        int maxEmpty = (int) (n * n * EMPTY_RATIO);
+        int empty = 0;
+        for (int cell : order) {
+            if (empty >= maxEmpty) break;
+            int r = cell / n;
+            int c = cell % n;
+            int val = puzzle.getValue(r, c);
+            puzzle.setValue(r, c, BinairoGrid.EMPTY);
+            BitboardState state = BitboardState.fromGrid(puzzle);
+            if (state.propagate() && state.isFull()) {
+                empty++;
+            } else {
+                puzzle.setValue(r, c, val);
+            }
+        }
+        puzzle.resetDomainsForUnassignedCells();
+        return puzzle;
+    }
+}
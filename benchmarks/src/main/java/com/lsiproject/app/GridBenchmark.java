@@ -0,0 +1,89 @@
+package com.lsiproject.app;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Primitives de BinairoGrid : construction, copie et vérification des règles.
+ * Chaque appel passe à la grille suivante du corpus, pour ne pas mesurer une seule grille.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+
+    @Param({"6", "10", "14", "20"})
+    public int size;
+
+    private BinairoGrid[] puzzles;
+    private BinairoGrid[] solutions;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        puzzles = BenchmarkCorpus.puzzles(size);
+        solutions = BenchmarkCorpus.solutions(size);
+    }
+
+    private int next() {
+        index = (index + 1) % BenchmarkCorpus.GRIDS;
+        return index;
+    }
+
+    @Benchmark
+    public BinairoGrid construct() {
+        return new BinairoGrid(size);
+    }
+
+    @Benchmark
+    public BinairoGrid copy() {
+        return new BinairoGrid(puzzles[next()]);
+    }
+
+    /**
+     * R1 sur toutes les cases d'une grille partielle.
+     */
+    @Benchmark
+    public int checkLocalConstraints() {
+        BinairoGrid grid = puzzles[next()];
+        int valid = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (grid.checkLocalConstraints(r, c)) valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public boolean isCompletelyValid() {
+        return solutions[next()].isCompletelyValid();
+    }
+
+    /**
+     * R3 sur toutes les lignes d'une grille complète (pire cas : toutes les lignes sont pleines).
+     */
+    @Benchmark
+    public int checkDuplicateRow() {
+        BinairoGrid grid = solutions[next()];
+        int valid = 0;
+        for (int r = 0; r < size; r++) {
+            if (grid.checkDuplicateRow(r)) valid++;
+        }
+        return valid;
+    }
+}
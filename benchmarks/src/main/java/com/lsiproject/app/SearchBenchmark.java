@@ -0,0 +1,62 @@
+package com.lsiproject.app;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Résolution de grilles qui exigent une recherche avec retours arrière (BenchmarkCorpus.searchPuzzles),
+ * avec et sans l'ordre LCV : contrairement au corpus de SolverBenchmark, la propagation ne suffit pas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"6", "10", "14"})
+    public int size;
+
+    private BinairoSolver lcvSolver;
+    private BinairoSolver orderSolver; // Valeurs dans l'ordre 0 puis 1
+    private BinairoGrid[] puzzles;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        lcvSolver = new BinairoSolver();
+        lcvSolver.configureSolver(true, true, true, true, false, true);
+        lcvSolver.setUseSolutionCache(false);
+        orderSolver = new BinairoSolver();
+        orderSolver.configureSolver(true, true, false, true, false, true);
+        orderSolver.setUseSolutionCache(false);
+        puzzles = BenchmarkCorpus.searchPuzzles(size);
+    }
+
+    private int next() {
+        index = (index + 1) % BenchmarkCorpus.GRIDS;
+        return index;
+    }
+
+    @Benchmark
+    public BinairoGrid checkResolvabilityLCV() {
+        return lcvSolver.checkResolvability(puzzles[next()]);
+    }
+
+    @Benchmark
+    public BinairoGrid checkResolvabilityDefaultOrder() {
+        return orderSolver.checkResolvability(puzzles[next()]);
+    }
+}
@@ -0,0 +1,107 @@
+package com.lsiproject.app;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cœur du solveur CSP : prétraitements AC-3/AC-4, ordre LCV et résolution complète.
+ * Le cache de solutions est désactivé : chaque résolution mesure une vraie recherche.
+ *
+ * La copie de WorkGrid est exclue du temps mesuré, mais pas de gc.alloc.rate.norm (les allocations du thread
+ * pendant @Setup(Level.Invocation) sont comptées) : les octets de copyBaseline sont à retrancher de ceux
+ * d'initialAC3 et d'initialAC4.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"6", "10", "14", "20"})
+    public int size;
+
+    private BinairoSolver solver;
+    private BinairoGrid[] puzzles;
+    private int[] firstEmptyCell; // Case mesurée par getLCVOrderedValues, pour chaque grille
+    private int index;
+
+    /**
+     * Copie fraîche d'une grille du corpus avant chaque appel : AC-3 et AC-4 réduisent les domaines sur place.
+     */
+    @State(Scope.Thread)
+    public static class WorkGrid {
+        BinairoGrid grid;
+
+        @Setup(Level.Invocation)
+        public void copy(SolverBenchmark benchmark) {
+            grid = new BinairoGrid(benchmark.puzzles[benchmark.next()]);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        solver = new BinairoSolver();
+        solver.configureSolver(true, true, true, true, false, true);
+        solver.setUseSolutionCache(false);
+        puzzles = BenchmarkCorpus.puzzles(size);
+        firstEmptyCell = new int[puzzles.length];
+        for (int i = 0; i < puzzles.length; i++) {
+            int cell = 0;
+            while (puzzles[i].getValue(cell / size, cell % size) != BinairoGrid.EMPTY) cell++;
+            firstEmptyCell[i] = cell;
+        }
+    }
+
+    private int next() {
+        index = (index + 1) % BenchmarkCorpus.GRIDS;
+        return index;
+    }
+
+    /**
+     * Copie seule, sans traitement : allocations de la fixture WorkGrid.
+     */
+    @Benchmark
+    public BinairoGrid copyBaseline(WorkGrid work) {
+        return work.grid;
+    }
+
+    @Benchmark
+    public BinairoGrid initialAC3(WorkGrid work) {
+        solver.initialAC3(work.grid);
+        return work.grid;
+    }
+
+    @Benchmark
+    public BinairoGrid initialAC4(WorkGrid work) {
+        solver.initialAC4(work.grid);
+        return work.grid;
+    }
+
+    @Benchmark
+    public List<Integer> getLCVOrderedValues() {
+        int i = next();
+        int cell = firstEmptyCell[i];
+        return solver.getLCVOrderedValues(puzzles[i], cell / size, cell % size);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BinairoGrid checkResolvability() {
+        return solver.checkResolvability(puzzles[next()]);
+    }
+}
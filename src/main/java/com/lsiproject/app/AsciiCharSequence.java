@@ -0,0 +1,45 @@
+package com.lsiproject.app;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Vue CharSequence d'un tampon d'octets ASCII (typiquement un fichier projeté en mémoire) :
+ * un caractère par octet, sans décodage ni copie.
+ */
+public class AsciiCharSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    public AsciiCharSequence(ByteBuffer buffer) {
+        this(buffer, 0, buffer.limit());
+    }
+
+    private AsciiCharSequence(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() { return length; }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) throw new IndexOutOfBoundsException(start + ".." + end);
+        return new AsciiCharSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) bytes[i] = buffer.get(offset + i);
+        return new String(bytes, java.nio.charset.StandardCharsets.US_ASCII);
+    }
+}
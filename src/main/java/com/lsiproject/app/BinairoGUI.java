@@ -3,8 +3,9 @@ package com.lsiproject.app;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.util.Scanner;
-import java.util.Random;
 
 public class BinairoGUI extends JFrame {
 
@@ -16,6 +17,41 @@ public class BinairoGUI extends JFrame {
     private boolean isManualMode = false;
     // Variable pour stocker l'état initial avant toute résolution ou jeu
     private BinairoGrid initialDisplayedGrid = null;
+    // Moteur d'aide de la partie manuelle en cours (null si la taille dépasse BitboardState.MAX_SIZE)
+    private HintEngine hintEngine;
+    // Validation incrémentale de la partie manuelle et cases d'indice (non modifiables)
+    private ConflictTracker conflictTracker;
+    private boolean[][] clueCells;
+    // Base de grilles (ouverte à la demande) et grille de la base en cours de jeu (-1 : aucune)
+    private PuzzleDatabase puzzleDatabase;
+    private int databaseSize;
+    private int databaseId = -1;
+    // Coups de la partie manuelle (défaire/refaire)
+    private final MoveHistory moveHistory = new MoveHistory();
+    // Journal de la partie manuelle : ouvert à la première sauvegarde (ou repris au chargement d'un .bnj),
+    // chaque coup y est ensuite ajouté
+    private SessionJournal journal;
+    private GridCanvas gridCanvas;
+    private JScrollPane gridScroll;
+    // Solution de la partie manuelle (calculée une seule fois) et unicité : si elle est unique,
+    // tout coup qui s'en écarte ne mène à aucune solution
+    private BinairoGrid sessionSolution;
+    private boolean sessionUnique;
+    private static final long UNIQUENESS_TIMEOUT_MS = 2000;
+
+    // Résolution en arrière-plan (hors du thread Swing) et progression limitée à PROGRESS_INTERVAL_MS
+    private static final long PROGRESS_INTERVAL_MS = 100;
+    private SwingWorker<GridResolution, SolveProgress> solveWorker;
+    private SearchLimits solveLimits = SearchLimits.unlimited();
+    private JButton startButton;
+    private JButton cancelButton;
+    // Actions qui remplacent la grille ou utilisent le solveur : inactives tant que solveWorker tourne
+    private final java.util.List<JComponent> gridActions = new java.util.ArrayList<>();
+
+    // Trace de la dernière résolution (relecture pas à pas)
+    private SearchTrace lastTrace;
+    private BinairoGrid lastTraceInitial;
+    private JButton replayButton;
 
     // Éléments de configuration
     private JCheckBox mvrCheck;
@@ -24,18 +60,30 @@ public class BinairoGUI extends JFrame {
     private JCheckBox ac3Check;
     private JCheckBox ac4Check; // NOUVEAU: Checkbox pour AC-4
     private JCheckBox fcCheck;
+    private JCheckBox parallelCheck;
+    private JCheckBox traceCheck;
     private JRadioButton humanPlayRadio;
     private JRadioButton aiSolveRadio;
 
     public BinairoGUI() {
         setTitle("Jeu Binairo (Takuzu) - Résolution CSP");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                if (journal != null) journal.close(); // Coups en attente écrits avant la fermeture
+            }
+        });
         setLayout(new BorderLayout(10, 10));
 
         // Initialisation des éléments de l'UI
         statusLabel = new JLabel("Bienvenue ! Configurez la résolution et cliquez sur 'Démarrer'.", SwingConstants.CENTER);
         statusLabel.setFont(new Font("Arial", Font.BOLD, 14));
 
+        // Cache de solutions conservé d'une session à l'autre
+        solver.setSolutionCache(new SolutionCache(SolutionCache.DEFAULT_MAX_BYTES,
+                java.nio.file.Paths.get(System.getProperty("user.home"), "BinairoSaves", "solutions.cache")));
+
         setupConfigurationPanel();
         setupGridPanel();
 
@@ -74,7 +122,7 @@ public class BinairoGUI extends JFrame {
         configPanel.add(modePanel);
 
         // 2. Choix de la taille (simplifié ici, pourrait être un JSpinner)
-        JComboBox<Integer> sizeSelector = new JComboBox<>(new Integer[]{4, 6, 8, 10, 12});
+        JComboBox<Integer> sizeSelector = new JComboBox<>(new Integer[]{4, 6, 8, 10, 12, 16, 20, 32, 64, 128, 256});
         sizeSelector.setSelectedItem(gridSize);
         sizeSelector.addActionListener(e -> {
             // Mise à jour de la taille de la grille de départ
@@ -84,6 +132,7 @@ public class BinairoGUI extends JFrame {
         JPanel sizePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         sizePanel.add(new JLabel("Taille de la Grille:"));
         sizePanel.add(sizeSelector);
+        gridActions.add(sizeSelector);
         configPanel.add(sizePanel);
 
         // 3. Panneau des Heuristiques (pour le mode AI / Validation)
@@ -96,6 +145,8 @@ public class BinairoGUI extends JFrame {
         ac3Check = new JCheckBox("AC-3 (Prétraitement)", true);
         ac4Check = new JCheckBox("AC-4 (Prétraitement Optimisé)", false); // NOUVEAU
         fcCheck = new JCheckBox("FC (Forward Checking)", true);
+        parallelCheck = new JCheckBox("Propagation // (Lignes/Colonnes)", false);
+        traceCheck = new JCheckBox("Tracer la recherche (relecture)", false);
 
         heuristicPanel.add(mvrCheck);
         heuristicPanel.add(degreeCheck);
@@ -103,39 +154,47 @@ public class BinairoGUI extends JFrame {
         heuristicPanel.add(ac3Check);
         heuristicPanel.add(ac4Check);
         heuristicPanel.add(fcCheck);
+        heuristicPanel.add(parallelCheck);
+        heuristicPanel.add(traceCheck);
         configPanel.add(heuristicPanel);
 
         // 4. Boutons d'Action (Démarrage et Création)
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
 
-        JButton startButton = new JButton("1. Démarrer la Résolution");
+        startButton = new JButton("1. Démarrer la Résolution");
         startButton.addActionListener(e -> startResolutionFlow());
 
+        cancelButton = new JButton("Annuler");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> solveLimits.cancel());
+
         // Bouton unique pour choisir le mode de création de la grille (Manuelle/Aléatoire)
         JButton createGridButton = new JButton("2. Créer/Charger Grille");
         createGridButton.addActionListener(e -> {
-            GridResolution initialResolution = promptForGridCreationGUI(gridSize);
-            if (initialResolution != null) {
-                // Met à jour la GUI avec la grille initiale validée (ou non résoluble)
-                currentGrid = initialResolution.getInitialGrid();
-                initialDisplayedGrid = new BinairoGrid(currentGrid);
-                this.gridSize = currentGrid.getSize();
-                displayGrid(currentGrid, true);
-
-                if (initialResolution.isResolvable()) {
-                    statusLabel.setText("Grille initialisée et résoluble. Prêt à démarrer.");
-                } else {
-                    statusLabel.setText("🛑 Grille initialisée mais non résoluble. Veuillez en choisir une autre.");
-                }
-            }
+            BinairoGrid created = promptForGridCreationGUI(gridSize);
+            if (created != null) checkCreatedGrid(created);
         });
 
         JButton helpButton = new JButton("4. Aide / Suggestion");
         helpButton.addActionListener(e -> proposeSuggestion());
 
+        JButton revealButton = new JButton("5. Révéler une case");
+        revealButton.addActionListener(e -> revealNextCell());
+
         actionPanel.add(startButton);
+        actionPanel.add(cancelButton);
         actionPanel.add(createGridButton);
         actionPanel.add(helpButton);
+        actionPanel.add(revealButton);
+        gridActions.add(startButton);
+        gridActions.add(createGridButton);
+        gridActions.add(helpButton);
+        gridActions.add(revealButton);
+
+        replayButton = new JButton("6. Rejouer la trace");
+        replayButton.setEnabled(false);
+        replayButton.addActionListener(e -> new TraceReplayDialog(this, lastTrace, lastTraceInitial).setVisible(true));
+        actionPanel.add(replayButton);
 
         configPanel.add(actionPanel);
 
@@ -151,6 +210,8 @@ public class BinairoGUI extends JFrame {
 
         saveLoadPanel.add(saveButton);
         saveLoadPanel.add(loadButton);
+        gridActions.add(saveButton);
+        gridActions.add(loadButton);
 
         configPanel.add(saveLoadPanel);
 
@@ -159,12 +220,12 @@ public class BinairoGUI extends JFrame {
 
     /**
      * Logique de l'ancienne fonction promptForGridCreation, adaptée à la GUI.
-     * @return GridResolution si la grille est créée, sinon null.
+     * @return La grille créée (à vérifier par checkCreatedGrid), sinon null.
      */
-    private GridResolution promptForGridCreationGUI(int size) {
+    private BinairoGrid promptForGridCreationGUI(int size) {
         BinairoGrid grid = null;
 
-        Object[] creationOptions = {"1. Manuelle (Indices)", "2. Aléatoire", "3. Exemple (6, 8, 10)"};
+        Object[] creationOptions = {"1. Manuelle (Indices)", "2. Aléatoire", "3. Exemple (6, 8, 10)", "4. Importer (fichier texte)"};
         String choice = (String) JOptionPane.showInputDialog(
                 this,
                 "Choisissez la méthode de création :",
@@ -187,38 +248,131 @@ public class BinairoGUI extends JFrame {
             case "3. Exemple (6, 8, 10)":
                 grid = createExampleGrid(size);
                 break;
+            case "4. Importer (fichier texte)":
+                grid = importGridFromText();
+                break;
         }
 
-        if (grid == null) return null;
+        return grid;
+    }
 
-        // --- VÉRIFICATION DE LA VALIDITÉ ET DE LA RÉSOLUBILITÉ ---
+    /**
+     * Vérifie la validité et la résolubilité d'une grille créée hors du thread Swing (tailles jusqu'à 256),
+     * avec des limites neuves : Annuler interrompt la vérification, et une annulation passée ne la touche pas.
+     * La grille est affichée dans done(), résoluble ou non.
+     */
+    private void checkCreatedGrid(BinairoGrid grid) {
         // Configuration maximale pour la validation (Utilise la config max incluant AC-4)
         solver.configureSolver(true, true, true, true, true, true);
-
+        solveLimits = SearchLimits.unlimited();
+        solver.setSearchLimits(solveLimits);
         statusLabel.setText("Vérification de la résolubilité...");
+        setSolveRunning(true);
+        solveWorker = new SwingWorker<GridResolution, SolveProgress>() {
+            @Override
+            protected GridResolution doInBackground() {
+                return solver.solve(grid);
+            }
 
-        // On appelle le solveur une seule fois pour la validation
-        BinairoGrid solution = solver.checkResolvability(grid);
+            @Override
+            protected void done() {
+                solver.setSearchLimits(SearchLimits.unlimited());
+                setSolveRunning(false);
+                GridResolution initialResolution;
+                try {
+                    initialResolution = get();
+                } catch (Exception e) {
+                    statusLabel.setText("🛑 Erreur pendant la vérification : " + e.getMessage());
+                    return;
+                }
+                if (initialResolution.isInterrupted()) {
+                    statusLabel.setText("⏹ Vérification interrompue : la grille n'a pas été chargée.");
+                    return;
+                }
+                if (!initialResolution.isResolvable()) {
+                    JOptionPane.showMessageDialog(BinairoGUI.this,
+                            "Le solveur n'a trouvé AUCUNE solution pour cette grille. Veuillez en choisir une autre.",
+                            "Grille Non Résoluble", JOptionPane.WARNING_MESSAGE);
+                }
+                // Met à jour la GUI avec la grille initiale validée (ou non résoluble)
+                endManualSession();
+                currentGrid = initialResolution.getInitialGrid();
+                initialDisplayedGrid = new BinairoGrid(currentGrid);
+                gridSize = currentGrid.getSize();
+                displayGrid(currentGrid, true);
 
-        if (solution != null) {
-            return new GridResolution(grid, solution);
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    "Le solveur n'a trouvé AUCUNE solution pour cette grille. Veuillez en choisir une autre.",
-                    "Grille Non Résoluble", JOptionPane.WARNING_MESSAGE);
-            return new GridResolution(grid, null);
-        }
+                String difficulty = describeDifficulty(currentGrid);
+                if (initialResolution.isResolvable()) {
+                    statusLabel.setText("Grille initialisée et résoluble" + difficulty + ". Prêt à démarrer.");
+                } else {
+                    statusLabel.setText("🛑 Grille initialisée mais non résoluble" + difficulty + ". Veuillez en choisir une autre.");
+                }
+            }
+        };
+        solveWorker.execute();
     }
 
     /**
      * Initialise le panneau de la grille.
      */
     private void setupGridPanel() {
-        gridPanel = new JPanel();
+        gridPanel = new JPanel(new BorderLayout());
         gridPanel.setBorder(BorderFactory.createTitledBorder("Grille Binairo"));
+
+        // Un seul composant dessiné pour toute la grille, dans une zone défilante (zoom : Ctrl + molette)
+        gridCanvas = new GridCanvas();
+        gridCanvas.setCellListener(this::onCellClicked);
+        gridScroll = new JScrollPane(gridCanvas);
+        gridScroll.setPreferredSize(new Dimension(520, 520));
+        gridPanel.add(gridScroll, BorderLayout.CENTER);
+
+        JPanel zoomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton zoomOutButton = new JButton("−");
+        zoomOutButton.addActionListener(e -> gridCanvas.setCellSize(gridCanvas.getCellSize() * 4 / 5));
+        JButton zoomInButton = new JButton("+");
+        zoomInButton.addActionListener(e -> gridCanvas.setCellSize(gridCanvas.getCellSize() * 5 / 4 + 1));
+        JButton fitButton = new JButton("Ajuster");
+        fitButton.addActionListener(e -> fitGridToView());
+        zoomPanel.add(new JLabel("Zoom :"));
+        zoomPanel.add(zoomOutButton);
+        zoomPanel.add(zoomInButton);
+        zoomPanel.add(fitButton);
+
+        // Défaire / Refaire (aussi Ctrl+Z / Ctrl+Y)
+        JPanel historyPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton undoButton = new JButton("Défaire");
+        undoButton.addActionListener(e -> undoMove());
+        JButton redoButton = new JButton("Refaire");
+        redoButton.addActionListener(e -> redoMove());
+        historyPanel.add(undoButton);
+        historyPanel.add(redoButton);
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo", this::undoMove);
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo", this::redoMove);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(historyPanel, BorderLayout.WEST);
+        southPanel.add(zoomPanel, BorderLayout.EAST);
+        gridPanel.add(southPanel, BorderLayout.SOUTH);
+
         resetGrid();
     }
 
+    private void bindKey(KeyStroke key, String name, Runnable action) {
+        gridPanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(key, name);
+        gridPanel.getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    private void fitGridToView() {
+        Dimension view = gridScroll.getViewport().getExtentSize();
+        if (view.width <= 0 || view.height <= 0) view = gridScroll.getPreferredSize();
+        gridCanvas.fitTo(view.width - 4, view.height - 4);
+    }
+
     /**
      * Réinitialise la grille logique et le panneau d'affichage.
      */
@@ -230,29 +384,51 @@ public class BinairoGUI extends JFrame {
     }
 
     /**
-     * CRÉATION : Génère une grille avec des indices aléatoires.
+     * CRÉATION : Génère une grille aléatoire à solution unique (indices minimaux).
      */
     private BinairoGrid createRandomGrid(int size) {
-        BinairoGrid grid = new BinairoGrid(size);
-        Random rand = new Random();
-        int numIndices = size * size / 5; // Environ 20% des cases
-
-        for (int i = 0; i < numIndices; i++) {
-            int r = rand.nextInt(size);
-            int c = rand.nextInt(size);
-            int v = rand.nextInt(2); // 0 ou 1
-
-            // Placer la valeur seulement si elle est cohérente localement pour éviter les échecs triviaux
-            if (grid.getValue(r, c) == BinairoGrid.EMPTY) {
-                grid.setValue(r, c, v);
-                // Si la placement viole R1, on l'enlève
-                if (!grid.checkLocalConstraints(r, c)) {
-                    grid.setValue(r, c, BinairoGrid.EMPTY);
+        if (size > PuzzleGenerator.MAX_INTERACTIVE_SIZE) {
+            JOptionPane.showMessageDialog(this, "La génération aléatoire est limitée aux grilles "
+                    + PuzzleGenerator.MAX_INTERACTIVE_SIZE + "x" + PuzzleGenerator.MAX_INTERACTIVE_SIZE + ".", "Erreur", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+        BinairoGrid grid = new PuzzleGenerator().generate(size).getInitialGrid();
+        statusLabel.setText("Grille aléatoire " + size + "x" + size + " générée (solution unique).");
+        return grid;
+    }
+
+    /**
+     * CRÉATION : Importe la k-ième grille d'une collection au format texte (une grille par ligne, voir PuzzleTextReader).
+     * La taille de la grille importée remplace la taille sélectionnée.
+     */
+    private BinairoGrid importGridFromText() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return null;
+
+        String input = JOptionPane.showInputDialog(this, "Numéro de la grille dans le fichier :", "1");
+        if (input == null) return null;
+        long target;
+        try {
+            target = Long.parseLong(input.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Numéro invalide.", "Erreur", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+
+        try (PuzzleTextReader reader = PuzzleTextReader.open(chooser.getSelectedFile().toPath())) {
+            long index = 0;
+            while (reader.next()) {
+                if (++index == target) {
+                    statusLabel.setText("Grille " + target + " importée (ligne " + reader.getLineNumber() + ").");
+                    return reader.toGrid();
                 }
             }
+            JOptionPane.showMessageDialog(this, "Le fichier ne contient que " + index + " grille(s) valide(s).",
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
+        } catch (java.io.IOException e) {
+            JOptionPane.showMessageDialog(this, "Erreur de lecture : " + e.getMessage(), "Erreur", JOptionPane.ERROR_MESSAGE);
         }
-        statusLabel.setText("Grille aléatoire " + size + "x" + size + " générée.");
-        return grid;
+        return null;
     }
 
     /**
@@ -337,6 +513,20 @@ public class BinairoGUI extends JFrame {
             return;
         }
 
+        if (isManualMode && conflictTracker != null) {
+            // Partie en cours : les coups sont ajoutés au journal au lieu de réécrire la grille
+            if (journal == null) journal = solver.createJournal(currentGrid);
+            else journal.sync();
+            if (journal != null) {
+                statusLabel.setText("Partie sauvegardée (journal " + journal.getFile().getFileName() + ").");
+                JOptionPane.showMessageDialog(this, "Partie sauvegardée sous: " + journal.getFile().getFileName()
+                        + "\nLes coups suivants y sont enregistrés automatiquement.", "Sauvegarde Réussie", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Échec de la sauvegarde. Vérifiez les permissions.", "Erreur de Sauvegarde", JOptionPane.ERROR_MESSAGE);
+            }
+            return;
+        }
+
         String fileName = solver.saveGame(currentGrid);
 
         if (fileName != null) {
@@ -351,41 +541,233 @@ public class BinairoGUI extends JFrame {
      * Affiche la liste des parties sauvegardées et permet le chargement.
      */
     private void handleLoadGame() {
-        String[] savedGames = solver.listSavedGames();
+        Object[] sources = {"Sauvegardes", "Base de grilles"};
+        String source = (String) JOptionPane.showInputDialog(this, "Charger depuis :", "Charger une Partie",
+                JOptionPane.QUESTION_MESSAGE, null, sources, sources[0]);
+        if (source == null) return;
+        if (source.equals("Base de grilles")) {
+            handleLoadFromDatabase();
+            return;
+        }
+
+        java.util.List<SaveIndex.Entry> savedGames = solver.listSavedGameEntries();
 
-        if (savedGames == null || savedGames.length == 0) {
+        if (savedGames.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Aucune partie sauvegardée trouvée.", "Erreur", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
 
-        // Utiliser JOptionPane pour la sélection
-        String selectedFile = (String) JOptionPane.showInputDialog(this,
-                "Choisissez la partie à reprendre :",
-                "Charger une Partie",
-                JOptionPane.QUESTION_MESSAGE,
-                null,
-                savedGames,
-                savedGames[0]);
+        String selectedFile = chooseSavedGame(savedGames);
 
         if (selectedFile != null) {
             BinairoGrid loadedGrid = solver.loadGame(selectedFile);
 
             if (loadedGrid != null) {
-                // Mettre à jour l'état de la GUI
-                this.gridSize = loadedGrid.getSize();
-                currentGrid = loadedGrid;
-                initialDisplayedGrid = new BinairoGrid(loadedGrid); // L'état chargé est le nouvel état initial
-                isManualMode = true; // Une partie chargée est toujours en mode manuel par défaut
-                displayGrid(currentGrid, true);
-
-                statusLabel.setText("Partie chargée : " + selectedFile);
-                JOptionPane.showMessageDialog(this, "Partie chargée avec succès. Vous êtes en mode manuel.", "Chargement Réussi", JOptionPane.INFORMATION_MESSAGE);
+                startLoadedGame(loadedGrid, selectedFile);
             } else {
                 JOptionPane.showMessageDialog(this, "Échec du chargement du fichier.", "Erreur de Chargement", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
+    /**
+     * Tableau des sauvegardes (métadonnées de l'index, aucune grille relue) avec filtres par taille et par statut.
+     * @return Le nom du fichier choisi, ou null.
+     */
+    private String chooseSavedGame(java.util.List<SaveIndex.Entry> savedGames) {
+        String[] columns = {"Fichier", "Taille", "Remplissage", "Date", "Statut"};
+        javax.swing.table.DefaultTableModel model = new javax.swing.table.DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                // Valeurs typées : le tri compare des nombres et des dates, l'affichage passe par les rendus
+                switch (column) {
+                    case 1: return Integer.class;
+                    case 2: return Double.class;
+                    case 3: return java.util.Date.class;
+                    default: return String.class;
+                }
+            }
+        };
+        java.util.TreeSet<Integer> sizes = new java.util.TreeSet<>();
+        for (SaveIndex.Entry entry : savedGames) {
+            model.addRow(new Object[]{entry.getFileName(), entry.getSize(), entry.getFillRatio(),
+                    new java.util.Date(entry.getTimestamp()), entry.isSolved() ? "Résolue" : "En cours"});
+            sizes.add(entry.getSize());
+        }
+
+        JTable table = new JTable(model);
+        java.text.SimpleDateFormat dateFormat = new java.text.SimpleDateFormat("dd/MM/yyyy HH:mm");
+        table.setDefaultRenderer(Double.class, new javax.swing.table.DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setHorizontalAlignment(RIGHT);
+                setText(value == null ? "" : String.format("%.0f %%", (Double) value * 100));
+            }
+        });
+        table.setDefaultRenderer(java.util.Date.class, new javax.swing.table.DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(value == null ? "" : dateFormat.format((java.util.Date) value));
+            }
+        });
+        javax.swing.table.TableRowSorter<javax.swing.table.DefaultTableModel> sorter = new javax.swing.table.TableRowSorter<>(model);
+        table.setRowSorter(sorter);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        if (model.getRowCount() > 0) table.setRowSelectionInterval(0, 0);
+
+        JComboBox<Object> sizeFilter = new JComboBox<>();
+        sizeFilter.addItem("Toutes");
+        for (int size : sizes) sizeFilter.addItem(size);
+        JCheckBox unsolvedOnly = new JCheckBox("En cours seulement");
+        Runnable applyFilter = () -> {
+            Object size = sizeFilter.getSelectedItem();
+            boolean onlyUnsolved = unsolvedOnly.isSelected();
+            sorter.setRowFilter(new RowFilter<javax.swing.table.DefaultTableModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends javax.swing.table.DefaultTableModel, ? extends Integer> row) {
+                    if (size instanceof Integer && !size.equals(row.getValue(1))) return false;
+                    return !onlyUnsolved || !"Résolue".equals(row.getValue(4));
+                }
+            });
+        };
+        sizeFilter.addActionListener(e -> applyFilter.run());
+        unsolvedOnly.addActionListener(e -> applyFilter.run());
+
+        JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filters.add(new JLabel("Taille :"));
+        filters.add(sizeFilter);
+        filters.add(unsolvedOnly);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(560, 300));
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(filters, BorderLayout.NORTH);
+        panel.add(scroll, BorderLayout.CENTER);
+
+        int answer = JOptionPane.showConfirmDialog(this, panel, "Choisissez la partie à reprendre",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        int row = table.getSelectedRow();
+        if (answer != JOptionPane.OK_OPTION || row < 0) return null;
+        return (String) model.getValueAt(table.convertRowIndexToModel(row), 0);
+    }
+
+    /**
+     * Charge une grille de la base : taille, technique et statut filtrent la sélection par l'index de la base,
+     * puis seule la grille choisie est lue.
+     */
+    private void handleLoadFromDatabase() {
+        try {
+            if (puzzleDatabase == null) puzzleDatabase = new PuzzleDatabase(PuzzleDatabase.defaultDirectory());
+            int[] sizes = puzzleDatabase.sizes();
+            if (sizes.length == 0) {
+                JOptionPane.showMessageDialog(this, "La base de grilles est vide (" + puzzleDatabase.getDirectory()
+                        + ").\nElle se remplit avec : --generer <taille> <nombre> <difficulté> <graine> <répertoire>",
+                        "Base vide", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            Integer[] sizeChoices = new Integer[sizes.length];
+            for (int i = 0; i < sizes.length; i++) sizeChoices[i] = sizes[i];
+            Integer size = (Integer) JOptionPane.showInputDialog(this, "Taille :", "Base de grilles",
+                    JOptionPane.QUESTION_MESSAGE, null, sizeChoices, sizeChoices[0]);
+            if (size == null) return;
+
+            DifficultyRating.Level[] levels = DifficultyRating.Level.values();
+            Object[] levelChoices = new Object[levels.length + 1];
+            levelChoices[0] = "Toutes";
+            for (int i = 0; i < levels.length; i++) levelChoices[i + 1] = levels[i].getLabel();
+            Object levelChoice = JOptionPane.showInputDialog(this, "Technique la plus difficile :", "Base de grilles",
+                    JOptionPane.QUESTION_MESSAGE, null, levelChoices, levelChoices[0]);
+            if (levelChoice == null) return;
+            DifficultyRating.Level level = null;
+            for (int i = 0; i < levels.length; i++) {
+                if (levelChoices[i + 1].equals(levelChoice)) level = levels[i];
+            }
+
+            Object[] statusChoices = {"Toutes", "Non résolues", "Résolues"};
+            Object statusChoice = JOptionPane.showInputDialog(this, "Statut :", "Base de grilles",
+                    JOptionPane.QUESTION_MESSAGE, null, statusChoices, statusChoices[1]);
+            if (statusChoice == null) return;
+            Boolean solved = statusChoice.equals("Toutes") ? null : statusChoice.equals("Résolues");
+
+            int matching = puzzleDatabase.countMatching(size, level, solved);
+            if (matching == 0) {
+                JOptionPane.showMessageDialog(this, "Aucune grille ne correspond à ces critères.", "Base de grilles", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            String input = JOptionPane.showInputDialog(this, matching + " grille(s) correspondante(s). Numéro (1 à " + matching + ") :", "1");
+            if (input == null) return;
+            int rank;
+            try {
+                rank = Integer.parseInt(input.trim());
+            } catch (NumberFormatException e) {
+                rank = 0;
+            }
+            if (rank < 1 || rank > matching) {
+                JOptionPane.showMessageDialog(this, "Numéro invalide.", "Erreur", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            int id = puzzleDatabase.select(size, level, solved, rank - 1, 1)[0];
+            startLoadedGame(puzzleDatabase.read(size, id), "base, grille n° " + id);
+            databaseSize = size;
+            databaseId = id;
+        } catch (java.io.IOException e) {
+            JOptionPane.showMessageDialog(this, "Erreur de la base de grilles : " + e.getMessage(), "Erreur de Chargement", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Installe une grille chargée comme nouvelle partie manuelle.
+     */
+    private void startLoadedGame(BinairoGrid loadedGrid, String origin) {
+        // Mettre à jour l'état de la GUI
+        endManualSession();
+        this.gridSize = loadedGrid.getSize();
+        currentGrid = loadedGrid;
+        initialDisplayedGrid = new BinairoGrid(loadedGrid); // L'état chargé est le nouvel état initial
+        isManualMode = true; // Une partie chargée est toujours en mode manuel par défaut
+        startManualSession(currentGrid, null, null);
+        journal = solver.resumeJournal(origin); // Un journal chargé continue d'enregistrer les coups (null sinon)
+        displayGrid(currentGrid, true);
+        checkLoadedUniqueness(currentGrid);
+
+        statusLabel.setText("Partie chargée : " + origin);
+        JOptionPane.showMessageDialog(this, "Partie chargée avec succès. Vous êtes en mode manuel.", "Chargement Réussi", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Vérifie l'unicité d'une partie chargée hors du thread Swing (au plus UNIQUENESS_TIMEOUT_MS) :
+     * la partie est jouable tout de suite, la solution sert aux révélations dès que le comptage aboutit.
+     */
+    private void checkLoadedUniqueness(BinairoGrid loadedGrid) {
+        if (loadedGrid.getSize() > BitboardState.MAX_SIZE) return;
+        BinairoGrid clues = new BinairoGrid(loadedGrid); // Les coups joués pendant le comptage n'y entrent pas
+        solveLimits = SearchLimits.unlimited();
+        SearchLimits limits = solveLimits;
+        setSolveRunning(true);
+        solveWorker = new SwingWorker<GridResolution, SolveProgress>() {
+            @Override
+            protected GridResolution doInBackground() {
+                return computeUniqueness(clues, limits);
+            }
+
+            @Override
+            protected void done() {
+                setSolveRunning(false);
+                GridResolution uniqueness;
+                try {
+                    uniqueness = get();
+                } catch (Exception e) {
+                    return; // Unicité inconnue : la partie continue sans révélation
+                }
+                if (currentGrid == loadedGrid && clueCells != null) applyUniqueness(uniqueness);
+            }
+        };
+        solveWorker.execute();
+    }
+
     /**
      * Démarre le flux principal de résolution (Validation -> AI ou Manuel).
      */
@@ -409,11 +791,102 @@ public class BinairoGUI extends JFrame {
         // La validation utilise la configuration choisie par l'utilisateur.
         // NOTE: configureSolver doit maintenant accepter 6 paramètres booléens.
         solver.configureSolver(v_mvr, v_deg, v_lcv, v_ac3, v_ac4, v_fc);
+        solver.setParallelPropagation(parallelCheck.isSelected());
 
         statusLabel.setText("Validation de la résolubilité...");
+        boolean manual = !aiSolveRadio.isSelected();
+        // La comparaison AI mesure une vraie recherche : pas de solution servie par le cache
+        solver.setUseSolutionCache(manual);
+        endManualSession();
+        setSolveRunning(true);
+
+        // La recherche tourne hors du thread Swing ; Annuler agit sur ses limites (arrêt coopératif)
+        solveLimits = SearchLimits.unlimited();
+        solver.setSearchLimits(solveLimits);
+        SearchTrace trace = traceCheck.isSelected() ? new SearchTrace(SearchTrace.DEFAULT_CAPACITY) : null;
+        solveWorker = new SwingWorker<GridResolution, SolveProgress>() {
+            private GridResolution uniqueness;
+
+            @Override
+            protected GridResolution doInBackground() {
+                solver.setProgressListener((nodes, rate, depth, partial) ->
+                        publish(new SolveProgress(nodes, rate, depth, partial)), PROGRESS_INTERVAL_MS);
+                solver.setSearchTrace(trace);
+                try {
+                    // Le solveur travaille sur une COPIE de initialGridState, donc currentGrid n'est pas modifié.
+                    GridResolution resolution = solver.solve(initialGridState);
+                    if (manual && resolution.isResolvable()) {
+                        uniqueness = computeUniqueness(initialGridState, solveLimits);
+                    }
+                    return resolution;
+                } finally {
+                    solver.setProgressListener(null, 0);
+                    solver.setSearchTrace(null);
+                }
+            }
+
+            @Override
+            protected void process(java.util.List<SolveProgress> chunks) {
+                // Seule la dernière progression reçue est affichée
+                SolveProgress last = chunks.get(chunks.size() - 1);
+                statusLabel.setText(String.format("Recherche... %,d nœuds (%,.0f nœuds/s), profondeur %d",
+                        last.nodes, last.nodesPerSecond, last.depth));
+                showPartialGrid(last.partialGrid);
+            }
 
-        // Le solveur travaille sur une COPIE de initialGridState, donc currentGrid n'est pas modifié.
-        GridResolution resolution = new GridResolution(initialGridState, solver.checkResolvability(initialGridState));
+            @Override
+            protected void done() {
+                // Les limites annulées ne doivent pas survivre au worker : le solveur est partagé
+                solver.setSearchLimits(SearchLimits.unlimited());
+                setSolveRunning(false);
+                solver.setUseSolutionCache(true);
+                if (trace != null && trace.size() > 0) {
+                    lastTrace = trace;
+                    lastTraceInitial = initialGridState;
+                    replayButton.setEnabled(true);
+                }
+                GridResolution resolution;
+                try {
+                    resolution = get();
+                } catch (Exception e) {
+                    statusLabel.setText("🛑 Erreur pendant la résolution : " + e.getMessage());
+                    return;
+                }
+                onResolutionFinished(resolution, initialGridState, manual, uniqueness);
+            }
+        };
+        solveWorker.execute();
+    }
+
+    /**
+     * @return " (difficulté : ...)" pour la barre d'état, ou "" au-delà de DifficultyRater.MAX_PATTERN_SIZE.
+     * Une grille contradictoire est annoncée comme invalide, jamais comme facile.
+     */
+    private String describeDifficulty(BinairoGrid grid) {
+        if (grid.getSize() > DifficultyRater.MAX_PATTERN_SIZE) return "";
+        return " (difficulté : " + new DifficultyRater().rate(grid).getCategory() + ")";
+    }
+
+    /**
+     * Pendant une résolution en arrière-plan, seul Annuler reste actif : le solveur partagé
+     * et la grille affichée appartiennent au worker jusqu'à done().
+     */
+    private void setSolveRunning(boolean running) {
+        for (JComponent action : gridActions) action.setEnabled(!running);
+        cancelButton.setEnabled(running);
+    }
+
+    /**
+     * Suite de startResolutionFlow, exécutée sur le thread Swing une fois la recherche terminée.
+     */
+    private void onResolutionFinished(GridResolution resolution, BinairoGrid initialGridState,
+                                      boolean manual, GridResolution uniqueness) {
+        if (resolution.isInterrupted()) {
+            statusLabel.setText("⏹ Résolution interrompue (" + resolution.getStatus() + ") après "
+                    + solver.getNodesVisited() + " nœuds.");
+            displayGrid(initialGridState, true);
+            return;
+        }
 
         if (!resolution.isResolvable()) {
             statusLabel.setText("🛑 ÉCHEC: La grille actuelle n'est PAS résoluble.");
@@ -423,24 +896,50 @@ public class BinairoGUI extends JFrame {
         }
 
         // 2. Lancement du mode choisi
-        if (aiSolveRadio.isSelected()) {
-            handleAISolveGUI(resolution);
+        if (manual) {
+            handleHumanPlayGUI(resolution, uniqueness);
         } else {
-            handleHumanPlayGUI(resolution);
+            handleAISolveGUI(resolution);
         }
     }
 
+    /**
+     * Progression publiée par le SwingWorker de résolution.
+     */
+    private static class SolveProgress {
+        final long nodes;
+        final double nodesPerSecond;
+        final int depth;
+        final BinairoGrid partialGrid;
+
+        SolveProgress(long nodes, double nodesPerSecond, int depth, BinairoGrid partialGrid) {
+            this.nodes = nodes;
+            this.nodesPerSecond = nodesPerSecond;
+            this.depth = depth;
+            this.partialGrid = partialGrid;
+        }
+    }
+
+    /**
+     * Affiche une grille partielle de la recherche en mettant à jour les cases existantes.
+     */
+    private void showPartialGrid(BinairoGrid partial) {
+        gridCanvas.setGrid(partial, null, null, false);
+    }
+
     /**
      * Gère la résolution manuelle graphique.
      */
-    private void handleHumanPlayGUI(GridResolution resolution) {
+    private void handleHumanPlayGUI(GridResolution resolution, GridResolution uniqueness) {
         isManualMode = true;
         // La grille pour le jeu manuel doit être une nouvelle copie de l'état initial (non résolu)
         currentGrid = new BinairoGrid(resolution.getInitialGrid());
         // Mise à jour CRITIQUE de la taille de la grille affichée
         this.gridSize = currentGrid.getSize();
+        // La solution trouvée lors de la validation est conservée pour toute la partie
+        startManualSession(currentGrid, resolution.getSolution(), uniqueness);
 
-        statusLabel.setText("Mode Manuel: Cliquez sur une case vide pour changer sa valeur (0 ou 1).");
+        statusLabel.setText("Mode Manuel: Clic gauche pour faire défiler une case (vide, 0, 1), clic droit pour la révéler.");
         displayGrid(currentGrid, true);
     }
 
@@ -448,7 +947,7 @@ public class BinairoGUI extends JFrame {
      * Gère l'affichage de la solution AI et la comparaison de performance.
      */
     private void handleAISolveGUI(GridResolution resolution) {
-        isManualMode = false;
+        endManualSession();
 
         // Afficher la solution trouvée lors de la validation
         currentGrid = resolution.getSolution();
@@ -477,12 +976,21 @@ public class BinairoGUI extends JFrame {
             return;
         }
 
-        // Utiliser la meilleure configuration d'inférence (MVR, FC) pour trouver la suggestion.
-        // On configure avec AC-4 (true) pour avoir la meilleure inférence possible
-        solver.configureSolver(true, false, false, false, true, true);
-
-        // Le solveur a besoin d'une méthode pour retourner une assignation simple (r, c, val)
-        BinairoAssignment suggestion = solver.getInferenceSuggestion(currentGrid);
+        BinairoAssignment suggestion;
+        if (hintEngine != null) {
+            // Les déductions sont déjà à jour : aucune propagation à refaire
+            if (!hintEngine.isConsistent()) {
+                JOptionPane.showMessageDialog(this,
+                        "La grille actuelle mène à une contradiction : elle n'a plus de solution.",
+                        "Aide Non Trouvée", JOptionPane.WARNING_MESSAGE);
+                statusLabel.setText("Aide: La grille n'a plus de solution.");
+                return;
+            }
+            suggestion = hintEngine.getHint();
+        } else {
+            solver.configureSolver(true, false, false, false, true, true);
+            suggestion = solver.getInferenceSuggestion(currentGrid);
+        }
 
         if (suggestion != null) {
             JOptionPane.showMessageDialog(this,
@@ -498,134 +1006,231 @@ public class BinairoGUI extends JFrame {
     }
 
     /**
-     * Dessine la grille dans le panneau.
+     * Prépare l'aide et la validation incrémentale d'une partie manuelle : les cases déjà remplies sont des indices.
      */
-    private void displayGrid(BinairoGrid grid, boolean isInteractive) {
-
-        // FIX CRITICAL: Utiliser la taille réelle de la grille passée, et non la variable de classe.
-        int actualSize = grid.getSize();
-
-        gridPanel.removeAll();
-        gridPanel.setLayout(new GridLayout(actualSize, actualSize));
-
-        for (int r = 0; r < actualSize; r++) {
-            for (int c = 0; c < actualSize; c++) {
-                int val = grid.getValue(r, c);
-                JButton cellButton = new JButton(val == BinairoGrid.EMPTY ? "" : String.valueOf(val));
-                cellButton.setFont(new Font("Arial", Font.BOLD, 20));
-
-                if (val == BinairoGrid.EMPTY && isInteractive && isManualMode) {
-                    // Rendre les cases vides cliquables en mode manuel
-                    cellButton.setBackground(Color.LIGHT_GRAY);
-                    cellButton.addActionListener(new CellClickListener(r, c));
-                } else if (val != BinairoGrid.EMPTY) {
-                    // Style des indices remplis
-                    cellButton.setBackground(val == 0 ? new Color(220, 240, 255) : new Color(255, 230, 230));
-                }
-
-                gridPanel.add(cellButton);
+    private void startManualSession(BinairoGrid grid, BinairoGrid knownSolution, GridResolution uniqueness) {
+        int size = grid.getSize();
+        sessionSolution = knownSolution;
+        applyUniqueness(uniqueness);
+        hintEngine = size <= BitboardState.MAX_SIZE ? new HintEngine(grid) : null;
+        conflictTracker = new ConflictTracker(grid);
+        moveHistory.clear();
+        clueCells = new boolean[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                clueCells[r][c] = grid.getValue(r, c) != BinairoGrid.EMPTY;
             }
         }
-        gridPanel.revalidate();
-        gridPanel.repaint();
     }
 
     /**
-     * Détermine la raison spécifique de l'erreur.
+     * @param uniqueness Résultat de computeUniqueness, ou null s'il n'est pas (encore) connu.
      */
-    private String getSpecificValidationError(BinairoGrid nextGrid, int r, int c) {
+    private void applyUniqueness(GridResolution uniqueness) {
+        sessionUnique = uniqueness != null && uniqueness.isUnique();
+        if (sessionSolution == null && uniqueness != null) sessionSolution = uniqueness.getSolution();
+    }
 
-        // --- 1. Vérification R1 (Triple) ---
-        if (!nextGrid.checkLocalConstraints(r, c)) {
-            return "R1 (Triple): Maximum deux chiffres identiques côte à côte.";
+    private void endManualSession() {
+        isManualMode = false;
+        hintEngine = null;
+        conflictTracker = null;
+        clueCells = null;
+        sessionSolution = null;
+        sessionUnique = false;
+        moveHistory.clear();
+        if (journal != null) {
+            journal.close();
+            journal = null;
         }
+        databaseId = -1;
+    }
+
+    /**
+     * Vérifie l'unicité une fois pour toutes (recherche rapide, au plus deux solutions, temps borné).
+     * Si l'unicité n'est pas prouvée, la solution conservée sert seulement à révéler des cases.
+     * @param parentLimits Limites de la recherche englobante : les annuler arrête aussi ce comptage.
+     * @return Le résultat du comptage, ou null si la taille dépasse BitboardState.MAX_SIZE.
+     */
+    private GridResolution computeUniqueness(BinairoGrid grid, SearchLimits parentLimits) {
+        if (grid.getSize() > BitboardState.MAX_SIZE) return null;
+
+        SearchLimits previous = solver.getSearchLimits();
+        solver.setSearchLimits(parentLimits.child(UNIQUENESS_TIMEOUT_MS, 0));
+        GridResolution uniqueness = solver.checkUniqueness(grid);
+        solver.setSearchLimits(previous);
+        return uniqueness;
+    }
+
+    /**
+     * @return true si la valeur contredit la solution unique : le coup ne mène à aucune solution.
+     */
+    private boolean leadsToNoSolution(int r, int c, int val) {
+        if (val == BinairoGrid.EMPTY) return false;
+        if (sessionUnique) return sessionSolution.getValue(r, c) != val;
+        return hintEngine != null && !hintEngine.isConsistent();
+    }
 
-        // --- 2. Vérification R2 Partielle (Limite de N/2) ---
-        if (!nextGrid.checkPartialBalance(r, true)) {
-            return "R2 (Équilibre Ligne): Le nombre de 0 ou 1 dépasse déjà N/2.";
+    /**
+     * Révèle la valeur d'une case d'après la solution conservée.
+     */
+    private void revealCell(int r, int c) {
+        if (!isEditable(r, c)) return;
+        if (sessionSolution == null) {
+            statusLabel.setText("Révélation impossible : aucune solution connue pour cette grille.");
+            return;
         }
-        if (!nextGrid.checkPartialBalance(c, false)) {
-            return "R2 (Équilibre Colonne): Le nombre de 0 ou 1 dépasse déjà N/2.";
+        applyMove(r, c, sessionSolution.getValue(r, c));
+        if (isManualMode) {
+            statusLabel.setText("Case (" + (r + 1) + "," + (c + 1) + ") révélée : " + sessionSolution.getValue(r, c)
+                    + (sessionUnique ? "" : " (solution non unique : valeur d'une solution possible)"));
         }
+    }
 
-        // --- 3. Vérification Finale R2 et R3 (Unicité) ---
-        if (nextGrid.isRowFull(r)) {
-            if (!nextGrid.checkBalance(r, true)) {
-                return "R2 (Équilibre Final Ligne): La ligne doit contenir N/2 de chaque chiffre.";
-            }
-            if (!nextGrid.checkDuplicateRow(r)) {
-                return "R3 (Unicité Ligne): La ligne est identique à une autre ligne complétée.";
-            }
+    /**
+     * Révèle d'abord une case fausse (si la solution est unique), sinon la première case vide.
+     */
+    private void revealNextCell() {
+        if (!isManualMode || currentGrid == null || clueCells == null) {
+            JOptionPane.showMessageDialog(this, "La révélation n'est disponible qu'en mode manuel.", "Révélation non disponible", JOptionPane.WARNING_MESSAGE);
+            return;
         }
-
-        if (nextGrid.isColFull(c)) {
-            if (!nextGrid.checkBalance(c, false)) {
-                return "R2 (Équilibre Final Colonne): La colonne doit contenir N/2 de chaque chiffre.";
-            }
-            if (!nextGrid.checkDuplicateCol(c)) {
-                return "R3 (Unicité Colonne): La colonne est identique à une autre colonne complétée.";
-            }
+        int size = currentGrid.getSize();
+        int target = -1;
+        for (int i = 0; i < size * size && target < 0; i++) {
+            int val = currentGrid.getValue(i / size, i % size);
+            if (sessionUnique && val != BinairoGrid.EMPTY && val != sessionSolution.getValue(i / size, i % size)) target = i;
         }
-
-        // --- 4. Vérification de cohérence générale
-        // Utilisation de isCompletelyValid() comme vérification de l'état final/global
-        if (!nextGrid.isCompletelyValid()) {
-            return "Générale: L'état de la grille devient incohérent (erreur de domaine ou contrainte non locale).";
+        for (int i = 0; i < size * size && target < 0; i++) {
+            if (currentGrid.getValue(i / size, i % size) == BinairoGrid.EMPTY) target = i;
         }
+        if (target >= 0) revealCell(target / size, target % size);
+    }
 
-        return null;
+    private boolean isEditable(int r, int c) {
+        return isManualMode && clueCells != null && !clueCells[r][c];
     }
 
     /**
-     * Écouteur pour les clics de cellule en mode manuel.
+     * Affiche la grille dans le composant de dessin (aucun composant créé par case).
      */
-    private class CellClickListener extends AbstractAction {
-        private final int r, c;
+    private void displayGrid(BinairoGrid grid, boolean isInteractive) {
+        boolean resized = gridCanvas.getGrid() == null || gridCanvas.getGrid().getSize() != grid.getSize();
+        boolean interactive = isInteractive && isManualMode && clueCells != null;
+        gridCanvas.setGrid(grid, interactive ? clueCells : null, interactive ? conflictTracker : null, interactive);
+        if (resized) fitGridToView();
+    }
 
-        public CellClickListener(int r, int c) {
-            this.r = r;
-            this.c = c;
+    /**
+     * Redessine la case jouée et les seules cases dont l'état de conflit a changé (pas des lignes entières).
+     */
+    private void refreshChangedCells(int r, int c) {
+        gridCanvas.repaintCell(r, c);
+        int size = currentGrid.getSize();
+        for (int cell : conflictTracker.getChangedCells()) {
+            gridCanvas.repaintCell(cell / size, cell % size);
         }
+    }
 
-        @Override
-        public void actionPerformed(java.awt.event.ActionEvent e) {
-            if (!isManualMode || currentGrid.getValue(r, c) != BinairoGrid.EMPTY) return;
+    /**
+     * Applique un coup du joueur (EMPTY pour effacer) et l'enregistre dans l'historique.
+     */
+    private void applyMove(int r, int c, int newVal) {
+        int oldVal = currentGrid.getValue(r, c);
+        if (oldVal == newVal) return;
+        moveHistory.record(r * currentGrid.getSize() + c, oldVal, newVal);
+        if (journal != null) journal.recordMove(MoveHistory.pack(r * currentGrid.getSize() + c, oldVal, newVal));
+        setCell(r, c, newVal);
+    }
 
-            // Demander la valeur
-            String input = JOptionPane.showInputDialog(BinairoGUI.this,
-                    "Entrez 0 ou 1 pour la case (" + (r + 1) + "," + (c + 1) + "):", "Entrée Manuelle",
-                    JOptionPane.QUESTION_MESSAGE);
+    /**
+     * Une grille venant de la base est marquée résolue dans la base.
+     */
+    private void markDatabasePuzzleSolved() {
+        if (databaseId < 0 || puzzleDatabase == null) return;
+        try {
+            puzzleDatabase.setSolved(databaseSize, databaseId, true);
+        } catch (java.io.IOException e) {
+            System.err.println("Impossible de marquer la grille comme résolue : " + e.getMessage());
+        }
+        databaseId = -1;
+    }
 
-            if (input != null && (input.equals("0") || input.equals("1"))) {
-                int newVal = Integer.parseInt(input);
+    /**
+     * Défait le dernier coup : la case reprend son ancienne valeur (O(1), aucune copie de grille).
+     */
+    private void undoMove() {
+        if (!isManualMode || conflictTracker == null) return;
+        int delta = moveHistory.undo();
+        if (delta < 0) {
+            statusLabel.setText("Aucun coup à défaire.");
+            return;
+        }
+        if (journal != null) journal.recordUndo(delta);
+        int size = currentGrid.getSize();
+        int cell = MoveHistory.cellOf(delta);
+        setCell(cell / size, cell % size, MoveHistory.oldValueOf(delta));
+    }
 
-                // Créer une nouvelle grille pour tester le mouvement
-                BinairoGrid nextGrid = new BinairoGrid(currentGrid);
-                nextGrid.setValue(r, c, newVal);
+    private void redoMove() {
+        if (!isManualMode || conflictTracker == null) return;
+        int delta = moveHistory.redo();
+        if (delta < 0) {
+            statusLabel.setText("Aucun coup à refaire.");
+            return;
+        }
+        if (journal != null) journal.recordRedo(delta);
+        int size = currentGrid.getSize();
+        int cell = MoveHistory.cellOf(delta);
+        setCell(cell / size, cell % size, MoveHistory.newValueOf(delta));
+    }
 
-                // Vérification des règles après le coup (R1, R2 partielle, etc.)
-                String errorDescription = getSpecificValidationError(nextGrid, r, c);
+    /**
+     * Modifie une case (EMPTY pour effacer) et met à jour validation, aide et affichage.
+     */
+    private void setCell(int r, int c, int newVal) {
+        currentGrid.setValue(r, c, newVal);
+        conflictTracker.set(r, c, newVal);
+        if (hintEngine != null) {
+            if (newVal == BinairoGrid.EMPTY) hintEngine.clear(r, c);
+            else hintEngine.place(r, c, newVal);
+        }
+        refreshChangedCells(r, c);
 
-                if (errorDescription == null) {
-                    // Succès : le coup est valide
-                    currentGrid = nextGrid;
-                    displayGrid(currentGrid, true);
+        if (conflictTracker.isSolved()) {
+            statusLabel.setText("🎉 GAGNÉ! La grille est résolue et valide!");
+            markDatabasePuzzleSolved();
+            isManualMode = false;
+            displayGrid(currentGrid, false);
+            return;
+        }
+        String conflict = conflictTracker.describeConflict(r, c);
+        if (conflict != null) {
+            statusLabel.setText("⚠️ (" + (r + 1) + "," + (c + 1) + ") " + conflict);
+        } else if (leadsToNoSolution(r, c, newVal)) {
+            statusLabel.setText("⚠️ (" + (r + 1) + "," + (c + 1) + ") = " + newVal + " ne mène à aucune solution.");
+        } else if (conflictTracker.hasConflicts()) {
+            statusLabel.setText("Coup joué : (" + (r + 1) + "," + (c + 1) + "). Des conflits restent à corriger.");
+        } else {
+            statusLabel.setText("Coup joué : (" + (r + 1) + "," + (c + 1) + ") = "
+                    + (newVal == BinairoGrid.EMPTY ? "vide" : String.valueOf(newVal)));
+        }
+    }
 
-                    if (currentGrid.isFull() && currentGrid.isCompletelyValid()) {
-                        statusLabel.setText("🎉 GAGNÉ! La grille est résolue et valide!");
-                        isManualMode = false;
-                    } else {
-                        statusLabel.setText("Coup valide : (" + (r+1) + "," + (c+1) + ") = " + newVal);
-                    }
-                } else {
-                    // Échec : le coup viole une règle spécifique
-                    JOptionPane.showMessageDialog(BinairoGUI.this,
-                            "Coup invalide! " + errorDescription,
-                            "Erreur de Règle", JOptionPane.ERROR_MESSAGE);
-                    statusLabel.setText("Coup invalide à (" + (r+1) + "," + (c+1) + "). Réessayez.");
-                }
-            }
+    /**
+     * Clic sur une case en mode manuel : clic gauche pour faire défiler la valeur, clic droit pour la révéler.
+     */
+    private void onCellClicked(int r, int c, boolean rightButton) {
+        if (!isEditable(r, c)) return;
+        if (rightButton) {
+            revealCell(r, c);
+            return;
         }
+        // Cycle vide -> 0 -> 1 -> vide, appliqué directement sur la grille courante
+        int oldVal = currentGrid.getValue(r, c);
+        int newVal = oldVal == BinairoGrid.EMPTY ? BinairoGrid.ZERO
+                : oldVal == BinairoGrid.ZERO ? BinairoGrid.ONE : BinairoGrid.EMPTY;
+        applyMove(r, c, newVal);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,70 @@
+package com.lsiproject.app;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service de résolution asynchrone.
+ * Chaque requête s'exécute sur son propre thread virtuel avec une instance de solveur dédiée,
+ * et peut être bornée par une échéance et un budget de nœuds.
+ * L'annulation du CompletableFuture retourné arrête la recherche de façon coopérative.
+ */
+public class BinairoSolveService implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final boolean useMVR;
+    private final boolean useDegree;
+    private final boolean useLCV;
+    private final boolean useAC3;
+    private final boolean useAC4;
+    private final boolean useFC;
+
+    public BinairoSolveService(boolean useMVR, boolean useDegree, boolean useLCV, boolean useAC3, boolean useAC4, boolean useFC) {
+        this.useMVR = useMVR;
+        this.useDegree = useDegree;
+        this.useLCV = useLCV;
+        this.useAC3 = useAC3;
+        this.useAC4 = useAC4;
+        this.useFC = useFC;
+    }
+
+    /**
+     * Lance la résolution de la grille en arrière-plan.
+     * @param timeoutMillis Délai maximal (<= 0 : aucun).
+     * @param nodeBudget Nombre maximal de nœuds (<= 0 : illimité).
+     */
+    public CompletableFuture<GridResolution> submit(BinairoGrid grid, long timeoutMillis, long nodeBudget) {
+        return submit(grid, new SearchLimits(timeoutMillis, nodeBudget));
+    }
+
+    /**
+     * Lance la résolution de la grille en arrière-plan avec les limites données.
+     * La grille est copiée : l'appelant peut continuer à la modifier.
+     */
+    public CompletableFuture<GridResolution> submit(BinairoGrid grid, SearchLimits limits) {
+        BinairoGrid copy = new BinairoGrid(grid);
+
+        CompletableFuture<GridResolution> future = CompletableFuture.supplyAsync(() -> {
+            BinairoSolver solver = new BinairoSolver();
+            solver.configureSolver(useMVR, useDegree, useLCV, useAC3, useAC4, useFC);
+            solver.setSearchLimits(limits);
+            return solver.solve(copy);
+        }, executor);
+
+        // cancel() sur le future ne peut pas interrompre le calcul : on relaie vers les limites.
+        future.whenComplete((result, error) -> {
+            if (error instanceof CancellationException) {
+                limits.cancel();
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -1,6 +1,7 @@
 package com.lsiproject.app;
 
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -11,6 +12,8 @@ public class BinairoSolver extends CSPSearchBase {
 
     private static final String SAVE_DIRECTORY =
             System.getProperty("user.home") + File.separator + "BinairoSaves";
+    // Métadonnées des sauvegardes (relues seulement pour les fichiers modifiés)
+    private final SaveIndex saveIndex = new SaveIndex(Paths.get(SAVE_DIRECTORY), this::loadGame);
 
     private boolean useMVR;
     private boolean useDegree;
@@ -18,12 +21,40 @@ public class BinairoSolver extends CSPSearchBase {
     private boolean useAC3;
     private boolean useAC4;
     private boolean useFC;
+    private boolean useParallelPropagation;
 
     // --- Métriques de Performance ---
     private long nodesVisited;
     private long startTime;
     private long endTime;
 
+    // --- Limites coopératives (échéance, budget de nœuds, annulation) ---
+    private SearchLimits limits = SearchLimits.unlimited();
+    private boolean searchStopped;
+
+    // Progression : publiée au plus une fois par intervalle (vérification de l'horloge tous les 256 nœuds)
+    private static final long PROGRESS_CHECK_MASK = 255;
+    private SearchProgressListener progressListener;
+    private long progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(100);
+    private long lastProgressNanos;
+    private int depth;
+
+    // Trace des événements de la recherche (null : désactivée, sans surcoût)
+    private SearchTrace trace;
+    private int selectionReason; // Heuristique ayant choisi la dernière variable (SearchTrace.BY_*)
+
+    // Solutions déjà trouvées, partagées entre une grille et ses transformées (symétries, échange 0/1)
+    private SolutionCache solutionCache = new SolutionCache(SolutionCache.DEFAULT_MAX_BYTES);
+    private boolean useSolutionCache = true;
+    private boolean solvedFromCache;
+
+    // Brisure des symétries des indices dans countSolutions (une solution par orbite, comptes pondérés)
+    private boolean useSymmetryBreaking;
+
+    // Point de reprise de countSolutions (null : désactivé)
+    private Path checkpointFile;
+    private long checkpointIntervalMillis;
+
     /**
      * Configure les heuristiques à utiliser pour la prochaine résolution.
      */
@@ -36,6 +67,13 @@ public class BinairoSolver extends CSPSearchBase {
         this.useAC4 = useAC4;
     }
 
+    /**
+     * Active la propagation parallèle par lignes/colonnes à la place des balayages AC-3/AC-4.
+     */
+    public void setParallelPropagation(boolean useParallelPropagation) {
+        this.useParallelPropagation = useParallelPropagation;
+    }
+
     @Override
     public boolean wonPosition(GridState p, boolean player) {
         BinairoGrid pos = (BinairoGrid) p;
@@ -48,11 +86,112 @@ public class BinairoSolver extends CSPSearchBase {
     }
 
 
+    /**
+     * Définit les limites (échéance, budget de nœuds, annulation) appliquées aux prochaines résolutions.
+     */
+    public void setSearchLimits(SearchLimits limits) {
+        this.limits = limits != null ? limits : SearchLimits.unlimited();
+    }
+
+    public SearchLimits getSearchLimits() { return limits; }
+
+    /**
+     * Demande l'arrêt coopératif de la résolution en cours.
+     */
+    public void cancel() { limits.cancel(); }
+
+    public long getNodesVisited() { return nodesVisited; }
+
+    /**
+     * Définit l'écouteur de progression de cspBacktracking (null : aucun, sans surcoût).
+     * @param intervalMillis Intervalle minimal entre deux notifications.
+     */
+    public void setProgressListener(SearchProgressListener listener, long intervalMillis) {
+        this.progressListener = listener;
+        this.progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * Attache une trace aux prochaines résolutions (null pour la désactiver).
+     */
+    public void setSearchTrace(SearchTrace trace) { this.trace = trace; }
+
+    public SearchTrace getSearchTrace() { return trace; }
+
+    /**
+     * Remplace le cache de solutions (null : aucun cache).
+     */
+    public void setSolutionCache(SolutionCache solutionCache) { this.solutionCache = solutionCache; }
+
+    public SolutionCache getSolutionCache() { return solutionCache; }
+
+    /**
+     * Active ou non la consultation du cache par checkResolvability
+     * (à désactiver pour comparer les heuristiques : une solution en cache ne mesure aucune recherche).
+     */
+    public void setUseSolutionCache(boolean useSolutionCache) { this.useSolutionCache = useSolutionCache; }
+
+    /**
+     * @return true si la dernière résolution a été servie par le cache de solutions.
+     */
+    public boolean wasSolvedFromCache() { return solvedFromCache; }
+
+    /**
+     * Active la brisure des symétries dans countSolutions : le nombre de solutions reste exact
+     * (chaque solution trouvée compte pour la taille de son orbite), le nombre de nœuds visités diminue.
+     */
+    public void setSymmetryBreaking(boolean useSymmetryBreaking) { this.useSymmetryBreaking = useSymmetryBreaking; }
+
+    /**
+     * Enregistre périodiquement la position de countSolutions dans un fichier (null : désactivé).
+     * Si ce fichier contient une recherche sur les mêmes indices, le comptage reprend là où il s'était arrêté ;
+     * il est supprimé dès que le comptage aboutit, et conservé si la recherche est interrompue.
+     * Seuls les comptages exacts (cap <= 0) l'utilisent : un comptage plafonné comme checkUniqueness
+     * ne reprend, n'écrase ni ne supprime le point de reprise d'un long comptage en cours.
+     */
+    public void setCheckpoint(Path file, long intervalMillis) {
+        this.checkpointFile = file;
+        this.checkpointIntervalMillis = intervalMillis;
+    }
+
     private void resetMetrics() {
         this.nodesVisited = 0;
         this.startTime = 0;
         this.endTime = 0;
+        this.searchStopped = false;
+        this.solvedFromCache = false;
+        this.depth = 0;
+        this.lastProgressNanos = 0;
     }
+
+    private void reportProgress(BinairoGrid currentPos) {
+        long now = System.nanoTime();
+        if (now - lastProgressNanos < progressIntervalNanos) return;
+        lastProgressNanos = now;
+        double seconds = (now - startTime) / 1e9;
+        double rate = seconds > 0 ? nodesVisited / seconds : 0;
+        progressListener.onProgress(nodesVisited, rate, depth, new BinairoGrid(currentPos));
+    }
+
+    /**
+     * Résout la grille et retourne le résultat avec son statut
+     * (résolue, sans solution, ou interrompue par les limites de recherche).
+     */
+    public GridResolution solve(BinairoGrid initial) {
+        BinairoGrid solution = checkResolvability(initial);
+        if (solution != null) {
+            return new GridResolution(initial, solution, GridResolution.Status.SOLVED);
+        }
+        if (searchStopped) {
+            return new GridResolution(initial, null, limits.getStopReason());
+        }
+        return new GridResolution(initial, null, GridResolution.Status.UNSOLVABLE);
+    }
+
+    /**
+     * @return true si la dernière recherche a été interrompue avant de conclure.
+     */
+    public boolean wasInterrupted() { return searchStopped; }
     /**
      * Vérifie si la grille initiale est résoluble en lançant le solveur CSP.
      * @return La solution trouvée (BinairoGrid) si résoluble, sinon null.
@@ -69,12 +208,31 @@ public class BinairoSolver extends CSPSearchBase {
         resetMetrics();
         this.startTime = System.nanoTime();
 
-        // 1. PHASE DE PRÉTRAITEMENT AC-3 (OPTIONNEL)
-        if (this.useAC3) {
-            initialAC3(tempGrid);
+        // 0. CACHE DE SOLUTIONS (forme canonique : la grille ou l'une de ses transformées a déjà été résolue)
+        // Pas de cache quand la recherche est tracée : la trace doit décrire une vraie recherche
+        if (useSolutionCache && solutionCache != null && trace == null) {
+            BinairoGrid cached = solutionCache.lookup(initial);
+            if (cached != null) {
+                this.solvedFromCache = true;
+                this.endTime = System.nanoTime();
+                return cached;
+            }
         }
-        if (this.useAC4) {
-            initialAC4(tempGrid);
+
+        // 1. PHASE DE PRÉTRAITEMENT AC-3 (OPTIONNEL)
+        if (this.useParallelPropagation && (this.useAC3 || this.useAC4)) {
+            // Variante parallèle : lignes puis colonnes révisées concurremment jusqu'au point fixe
+            if (!initialParallelPropagation(tempGrid)) {
+                this.endTime = System.nanoTime();
+                return null;
+            }
+        } else {
+            if (this.useAC3) {
+                initialAC3(tempGrid);
+            }
+            if (this.useAC4) {
+                initialAC4(tempGrid);
+            }
         }
 
         // 2. VÉRIFICATION D'ÉCHEC AC-3/VALIDITÉ
@@ -85,12 +243,104 @@ public class BinairoSolver extends CSPSearchBase {
         }
 
         // 3. PHASE DE RECHERCHE
+        if (trace != null) trace.begin(tempGrid);
         BinairoGrid result = cspBacktracking(tempGrid);
         this.endTime = System.nanoTime(); // Capture le temps de fin ici
+        if (result != null && solutionCache != null) {
+            solutionCache.put(initial, result);
+        }
 
         return result;
     }
 
+    /**
+     * Vérifie rapidement l'unicité de la solution : le comptage s'arrête dès la deuxième solution.
+     * @return Un GridResolution dont getSolutionCount() vaut 0, 1 ou 2 (2 signifiant "au moins deux").
+     */
+    public GridResolution checkUniqueness(BinairoGrid initial) {
+        return countSolutions(initial, 2);
+    }
+
+    /**
+     * Compte les solutions de la grille avec la recherche rapide par masques de bits
+     * (mêmes règles d'élagage R1/R2/R3 que la propagation, sans copie de grille).
+     * Limité aux grilles de taille <= 64.
+     * @param cap Arrêt dès que ce nombre de solutions est atteint (<= 0 : comptage exact).
+     * @return Le résultat avec la première solution trouvée et le nombre de solutions.
+     */
+    public GridResolution countSolutions(BinairoGrid initial, long cap) {
+        resetMetrics();
+        this.startTime = System.nanoTime();
+
+        Path checkpointFile = cap <= 0 ? this.checkpointFile : null;
+        BitboardSearch search = checkpointFile != null ? resumeSearch(initial) : null;
+        if (search == null) {
+            search = new BitboardSearch(BitboardState.fromGrid(initial));
+            search.setSymmetryBreaking(useSymmetryBreaking);
+        }
+        search.setLimits(limits);
+
+        SearchCheckpoint checkpoint = checkpointFile != null ? new SearchCheckpoint(checkpointFile) : null;
+        if (checkpoint != null) search.setCheckpoint(checkpoint, checkpointIntervalMillis);
+        boolean completed = false;
+        try {
+            while ((cap <= 0 || search.getSolutionCount() < cap) && search.nextSolution()) {
+                // Les solutions sont comptées par la recherche (reprises comprises)
+            }
+            completed = !search.wasStopped();
+        } finally {
+            if (checkpoint != null) {
+                if (completed) checkpoint.delete(); // Comptage terminé : plus rien à reprendre
+                checkpoint.close();
+            }
+        }
+        BinairoGrid firstSolution = search.getFirstSolution();
+        long count = search.getSolutionCount();
+
+        this.nodesVisited = search.getNodes();
+        this.searchStopped = search.wasStopped();
+        this.endTime = System.nanoTime();
+
+        GridResolution.Status status;
+        if (firstSolution != null) {
+            status = GridResolution.Status.SOLVED;
+        } else if (searchStopped) {
+            status = limits.getStopReason();
+        } else {
+            status = GridResolution.Status.UNSOLVABLE;
+        }
+        boolean capped = searchStopped || (cap > 0 && count >= cap);
+        return new GridResolution(initial, firstSolution, status, count, capped);
+    }
+
+    /**
+     * @return La recherche enregistrée dans le point de reprise si elle porte sur les indices de la grille, sinon null.
+     */
+    private BitboardSearch resumeSearch(BinairoGrid initial) {
+        try {
+            byte[] data = SearchCheckpoint.read(checkpointFile);
+            if (data == null) return null;
+            BitboardSearch search = BitboardSearch.fromCheckpoint(data);
+            BitboardState state = search.getState();
+            int n = initial.getSize();
+            int clues = 0;
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) {
+                    if (initial.getValue(r, c) != BinairoGrid.EMPTY) clues++;
+                }
+            }
+            if (state.getSize() != n || search.getClueCount() != clues) return null;
+            for (int i = 0; i < clues; i++) {
+                int cell = state.getTrailCell(i);
+                if (initial.getValue(cell / n, cell % n) != state.getValue(cell / n, cell % n)) return null;
+            }
+            return search;
+        } catch (IOException e) {
+            System.err.println("Point de reprise ignoré : " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Tente de trouver une case vide dont le domaine a été réduit à une seule valeur (0 ou 1)
      * grâce à la propagation locale des contraintes.
@@ -99,6 +349,10 @@ public class BinairoSolver extends CSPSearchBase {
      */
     public BinairoAssignment getInferenceSuggestion(BinairoGrid currentGrid) {
         int size = currentGrid.getSize();
+        if (size <= BitboardState.MAX_SIZE) {
+            // Propagation par masques de bits (sans copie de grille par case)
+            return new HintEngine(currentGrid).getHint();
+        }
 
         // Cloner la grille et appliquer une forte propagation locale (similaire à AC-3)
         // pour voir si cela révèle une assignation forcée.
@@ -333,6 +587,23 @@ public class BinairoSolver extends CSPSearchBase {
         } while (domainReduced);
     }
 
+    /**
+     * Prétraitement par propagation parallèle : les lignes sont révisées en parallèle, puis les colonnes,
+     * en alternance jusqu'au point fixe.
+     * @return false si un domaine devient vide (grille impossible).
+     */
+    public boolean initialParallelPropagation(BinairoGrid grid) {
+        System.out.println("  [Propagation //] Démarrage du prétraitement parallèle...");
+        ParallelLinePropagator propagator = new ParallelLinePropagator();
+        boolean consistent = propagator.propagate(grid);
+        if (!consistent) {
+            System.err.println("  [Propagation //] Échec : Domaine vide détecté.");
+        } else {
+            System.out.println("  [Propagation //] Terminé en " + propagator.getPassCount() + " passes. Domaines réduits.");
+        }
+        return consistent;
+    }
+
     /**
      * 2a. Variable Selection: MRV (Minimum Remaining Values) and Degree Heuristic.
      * @return [row, col] de la variable à assigner, ou [-1, -1] si pleine.
@@ -354,6 +625,7 @@ public class BinairoSolver extends CSPSearchBase {
                         currentDegree = calculateDegree(grid, r, c);
                     } else if (!useMVR) {
                         // Si ni MVR ni Degré ne sont utilisés, on utilise la première variable trouvée (BT pur)
+                        selectionReason = SearchTrace.BY_ORDER;
                         return new int[]{r, c};
                     }
 
@@ -363,6 +635,7 @@ public class BinairoSolver extends CSPSearchBase {
                         bestR = r;
                         bestC = c;
                         maxDegree = currentDegree;
+                        selectionReason = SearchTrace.BY_MRV;
                     } else if (useMVR && currentDomainSize == minDomainSize) {
                         // Égalité MRV
                         if (useDegree && currentDegree > maxDegree) {
@@ -370,6 +643,7 @@ public class BinairoSolver extends CSPSearchBase {
                             bestR = r;
                             bestC = c;
                             maxDegree = currentDegree;
+                            selectionReason = SearchTrace.BY_DEGREE;
                         }
                     }
 
@@ -379,6 +653,7 @@ public class BinairoSolver extends CSPSearchBase {
                             maxDegree = currentDegree;
                             bestR = r;
                             bestC = c;
+                            selectionReason = SearchTrace.BY_DEGREE;
                         }
                     }
 
@@ -388,6 +663,7 @@ public class BinairoSolver extends CSPSearchBase {
                         bestR = r;
                         bestC = c;
                         maxDegree = currentDegree;
+                        selectionReason = SearchTrace.BY_ORDER;
                     }
                 }
             }
@@ -428,8 +704,9 @@ public class BinairoSolver extends CSPSearchBase {
     /**
      * 2b. Value Ordering: LCV (Least Constraining Value).
      * Trie les valeurs dans le domaine.
+     * Visibilité paquet : mesurée par les bancs d'essai (module benchmarks).
      */
-    private List<Integer> getLCVOrderedValues(BinairoGrid grid, int r, int c) {
+    List<Integer> getLCVOrderedValues(BinairoGrid grid, int r, int c) {
         Set<Integer> domain = grid.getDomains().get(r + "," + c);
 
         if (!useLCV) {
@@ -551,6 +828,7 @@ public class BinairoSolver extends CSPSearchBase {
                 // Vérifier si 'otherVal' est impossible pour (r, i)
                 if (isValueImpossible(grid, r, i, otherVal, val, r, c, true)) {
                     if (domain.remove(otherVal)) {
+                        if (trace != null) trace.record(SearchTrace.PRUNE, r, i, otherVal, depth, 0, false);
                         if (domain.isEmpty()) {
                             // ÉCHEC CRITIQUE DU FC : Le solveur doit remonter la branche
                             // Note: Le check de cohérence post-makeMove gère cet échec.
@@ -568,6 +846,7 @@ public class BinairoSolver extends CSPSearchBase {
                 // Vérifier si 'otherVal' est impossible pour (i, c)
                 if (isValueImpossible(grid, i, c, otherVal, val, r, c, false)) {
                     if (domain.remove(otherVal)) {
+                        if (trace != null) trace.record(SearchTrace.PRUNE, i, c, otherVal, depth, 0, false);
                         if (domain.isEmpty()) {
                             System.err.println("FC Failure: Domaine vide à (" + (i+1) + "," + (c+1) + ")");
                         }
@@ -630,10 +909,19 @@ public class BinairoSolver extends CSPSearchBase {
      * Algorithme de Backtracking Search avec MRV, Degrés, LCV et FC.
      */
     public BinairoGrid cspBacktracking(BinairoGrid currentPos) {
+        // Vérification coopérative des limites (échéance, budget, annulation)
+        if (searchStopped || limits.shouldStop(nodesVisited)) {
+            searchStopped = true;
+            return null;
+        }
         this.nodesVisited++;
+        if (progressListener != null && (nodesVisited & PROGRESS_CHECK_MASK) == 0) {
+            reportProgress(currentPos);
+        }
 
         // Test de Terminaison
         if (wonPosition(currentPos, PROGRAM)) {
+            if (trace != null) trace.record(SearchTrace.SOLUTION, 0, 0, 0, depth, 0, false);
             return currentPos;
         }
 
@@ -641,6 +929,7 @@ public class BinairoSolver extends CSPSearchBase {
         int[] nextVar = selectUnassignedVariable(currentPos);
         int r = nextVar[0];
         int c = nextVar[1];
+        int reason = selectionReason; // Copie locale : les appels récursifs réécrivent le champ
 
         if (r == -1) return null;
 
@@ -649,6 +938,7 @@ public class BinairoSolver extends CSPSearchBase {
 
         for (int val : orderedValues) {
             BinairoAssignment assignment = new BinairoAssignment(r, c, val);
+            if (trace != null) trace.record(SearchTrace.ASSIGN, r, c, val, depth, reason, useLCV);
 
             // 2c. application de FC (via makeMove)
             BinairoGrid nextPos = (BinairoGrid) makeMove(currentPos, PROGRAM, assignment);
@@ -657,11 +947,17 @@ public class BinairoSolver extends CSPSearchBase {
             if (nextPos.isCompletelyValid()) {
 
                 // Récursion
+                depth++;
                 BinairoGrid result = cspBacktracking(nextPos);
+                depth--;
                 if (result != null) {
                     return result; // Succès
                 }
+                if (searchStopped) {
+                    return null; // Recherche interrompue : ne pas explorer les autres valeurs
+                }
             }
+            if (trace != null) trace.record(SearchTrace.BACKTRACK, r, c, val, depth, 0, false);
         }
 
         return null; // Échec du Backtracking
@@ -676,12 +972,14 @@ public class BinairoSolver extends CSPSearchBase {
         // Afficher la configuration de PC utilisée
         String pcConfig = "";
         if (this.useAC3) pcConfig += "AC-3 Initial + ";
+        if (this.useParallelPropagation) pcConfig += "Propagation // + ";
         pcConfig += this.useFC ? "FC" : "BT Pur";
 
         System.out.println("\n===== Comparaison de Performance =====");
         System.out.println("Configuration : MVR=" + this.useMVR + ", Degrés=" + this.useDegree + ", LCV=" + this.useLCV + ", PC=" + pcConfig);
         System.out.println("Temps de Résolution : " + durationMs + " ms");
         System.out.println("Nœuds de Recherche Explorés : " + this.nodesVisited);
+        if (this.solvedFromCache) System.out.println("Solution lue dans le cache (grille déjà résolue).");
         System.out.println("======================================");
     }
 
@@ -695,6 +993,7 @@ public class BinairoSolver extends CSPSearchBase {
         // Construire la chaîne de configuration de propagation
         String pcConfig = "";
         if (this.useAC3) pcConfig += "AC-3 Initial + ";
+        if (this.useParallelPropagation) pcConfig += "Propagation // + ";
         pcConfig += this.useFC ? "FC" : "BT Pur";
 
         StringBuilder sb = new StringBuilder();
@@ -710,6 +1009,7 @@ public class BinairoSolver extends CSPSearchBase {
         sb.append("<ul>");
         sb.append("<li><b>Temps de Résolution :</b> ").append(durationMs).append(" ms</li>");
         sb.append("<li><b>Nœuds Explorés :</b> ").append(this.nodesVisited).append("</li>");
+        if (this.solvedFromCache) sb.append("<li><b>Solution lue dans le cache (grille déjà résolue)</b></li>");
         sb.append("</ul>");
 
         return sb.toString();
@@ -752,6 +1052,14 @@ public class BinairoSolver extends CSPSearchBase {
     public void solveManual(BinairoGrid currentPos) {
         Scanner scanner = new Scanner(System.in);
         System.out.println("\n--- Mode de Résolution Manuelle ---");
+        // Aide incrémentale : les déductions suivent les coups du joueur
+        HintEngine hints = currentPos.getSize() <= BitboardState.MAX_SIZE ? new HintEngine(currentPos) : null;
+        // Une seule copie en début de partie, puis les coups modifient la grille sur place ;
+        // l'historique garde un delta compact par coup
+        currentPos = new BinairoGrid(currentPos);
+        MoveHistory history = new MoveHistory();
+        int size = currentPos.getSize();
+        SessionJournal journal = null; // Ouvert à la première sauvegarde, puis chaque coup y est ajouté
 
         while (true) {
             printPosition(currentPos);
@@ -761,7 +1069,7 @@ public class BinairoSolver extends CSPSearchBase {
                 break;
             }
 
-            System.out.println("Options: (M)ouvement, (A)ide, (S)auvegarder, (Q)uitter");
+            System.out.println("Options: (M)ouvement, (D)éfaire, (R)efaire, (A)ide, (S)auvegarder, (Q)uitter");
             String choice = scanner.next().toUpperCase();
 
             if (choice.equals("Q")) break;
@@ -780,30 +1088,82 @@ public class BinairoSolver extends CSPSearchBase {
                             continue;
                         }
 
-                        // Appliquer le mouvement
-                        BinairoGrid nextPos = new BinairoGrid(currentPos);
-                        nextPos.setValue(r, c, val);
+                        // Appliquer le mouvement sur place (annulé s'il viole une règle)
+                        currentPos.setValue(r, c, val);
 
                         // Détection des règles violées
-                        if (nextPos.checkLocalConstraints(r, c) && nextPos.isCompletelyValid()) {
-                            currentPos = nextPos;
+                        if (currentPos.checkLocalConstraints(r, c) && currentPos.isCompletelyValid()) {
+                            history.record(r * size + c, BinairoGrid.EMPTY, val);
+                            if (journal != null) journal.recordMove(MoveHistory.pack(r * size + c, BinairoGrid.EMPTY, val));
+                            if (hints != null) hints.place(r, c, val);
                         } else {
+                            currentPos.setValue(r, c, BinairoGrid.EMPTY);
                             System.err.println("⚠️ Règle(s) violée(s) ! Annulation du coup.");
                             // TODO: Détailler la règle violée
                         }
                     }
                     break;
+                case "D":
+                case "R": {
+                    int delta = choice.equals("D") ? history.undo() : history.redo();
+                    if (delta < 0) {
+                        System.out.println(choice.equals("D") ? "Aucun coup à défaire." : "Aucun coup à refaire.");
+                        break;
+                    }
+                    int cell = MoveHistory.cellOf(delta);
+                    int val = choice.equals("D") ? MoveHistory.oldValueOf(delta) : MoveHistory.newValueOf(delta);
+                    currentPos.setValue(cell / size, cell % size, val);
+                    if (journal != null) {
+                        if (choice.equals("D")) journal.recordUndo(delta);
+                        else journal.recordRedo(delta);
+                    }
+                    if (hints != null) {
+                        if (val == BinairoGrid.EMPTY) hints.clear(cell / size, cell % size);
+                        else hints.place(cell / size, cell % size, val);
+                    }
+                    break;
+                }
                 case "A":
-                    proposeSuggestion(currentPos);
+                    if (hints != null) proposeSuggestion(hints);
+                    else proposeSuggestion(currentPos);
                     break;
                 case "S":
-                    // TODO: Implémenter la sauvegarde
-                    System.out.println("Sauvegarde non implémentée.");
+                    if (journal == null) {
+                        journal = createJournal(currentPos);
+                        if (journal == null) {
+                            System.err.println("Échec de la sauvegarde. Vérifiez les permissions.");
+                            break;
+                        }
+                        System.out.println("💾 Partie sauvegardée sous: " + journal.getFile().getFileName()
+                                + " (les coups suivants y sont ajoutés automatiquement).");
+                    } else {
+                        journal.sync();
+                        System.out.println("💾 Sauvegarde à jour: " + journal.getFile().getFileName());
+                    }
                     break;
                 default:
                     System.out.println("Choix invalide.");
             }
         }
+        if (journal != null) journal.close();
+    }
+
+    /**
+     * Affiche les cases forcées maintenues par le moteur d'aide (O(k), sans recalcul).
+     */
+    private void proposeSuggestion(HintEngine hints) {
+        System.out.println("💡 Suggestions:");
+        if (!hints.isConsistent()) {
+            System.out.println(" - La grille actuelle mène à une contradiction : aucune solution possible.");
+            return;
+        }
+        List<BinairoAssignment> forced = hints.getForcedCells();
+        for (BinairoAssignment a : forced) {
+            System.out.println(" - Case (" + (a.row + 1) + ", " + (a.col + 1) + ") DOIT être " + a.value + " (par propagation).");
+        }
+        if (forced.isEmpty()) {
+            System.out.println(" - Aucune suggestion évidente n'a été trouvée.");
+        }
     }
 
     /**
@@ -862,16 +1222,12 @@ public class BinairoSolver extends CSPSearchBase {
 
             SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
             String timestamp = sdf.format(new Date());
-            String fileName = String.format("Binairo_%dx%d_%s.ser", grid.getSize(), grid.getSize(), timestamp);
-            File file = new File(SAVE_DIRECTORY, fileName);
-
-            try (FileOutputStream fos = new FileOutputStream(file);
-                 ObjectOutputStream oos = new ObjectOutputStream(fos)) {
+            String fileName = String.format("Binairo_%dx%d_%s%s", grid.getSize(), grid.getSize(), timestamp, GridFile.EXTENSION);
 
-                // Sauvegarder la grille
-                oos.writeObject(grid);
-                return fileName;
-            }
+            // Format binaire compact (voir GridFile)
+            GridFile.write(Paths.get(SAVE_DIRECTORY, fileName), grid);
+            saveIndex.update(fileName, grid);
+            return fileName;
         } catch (Exception e) {
             System.err.println("Erreur lors de la sauvegarde du jeu: " + e.getMessage());
             return null;
@@ -879,12 +1235,64 @@ public class BinairoSolver extends CSPSearchBase {
     }
 
     /**
-     * Charge une grille à partir d'un nom de fichier donné.
+     * Ouvre un journal de partie (.bnj) dont la photo est la grille donnée : les coups y sont ensuite ajoutés
+     * un à un au lieu de réécrire la grille (voir SessionJournal).
+     * @return Le journal, ou null en cas d'erreur.
+     */
+    public SessionJournal createJournal(BinairoGrid grid) {
+        try {
+            Files.createDirectories(Paths.get(SAVE_DIRECTORY));
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
+            String fileName = String.format("Binairo_%dx%d_%s%s", grid.getSize(), grid.getSize(),
+                    sdf.format(new Date()), SessionJournal.EXTENSION);
+            return SessionJournal.create(Paths.get(SAVE_DIRECTORY, fileName), grid);
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la création du journal de partie: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Rouvre un journal de partie existant pour y ajouter les coups suivants.
+     * @return Le journal, ou null s'il n'existe pas ou est illisible.
+     */
+    public SessionJournal resumeJournal(String fileName) {
+        if (!fileName.endsWith(SessionJournal.EXTENSION)) return null;
+        try {
+            return SessionJournal.resume(Paths.get(SAVE_DIRECTORY, fileName));
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la reprise du journal de partie: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Charge une grille à partir d'un nom de fichier donné
+     * (format binaire .bnr, journal de partie .bnj, ou ancienne sauvegarde .ser par sérialisation Java).
      */
     public BinairoGrid loadGame(String fileName) {
         File file = new File(SAVE_DIRECTORY, fileName);
         if (!file.exists()) return null;
 
+        if (fileName.endsWith(SessionJournal.EXTENSION)) {
+            try {
+                return SessionJournal.replay(file.toPath());
+            } catch (Exception e) {
+                System.err.println("Erreur lors du chargement du jeu: " + e.getMessage());
+                return null;
+            }
+        }
+
+        if (fileName.endsWith(GridFile.EXTENSION)) {
+            try {
+                return GridFile.read(file.toPath());
+            } catch (Exception e) {
+                System.err.println("Erreur lors du chargement du jeu: " + e.getMessage());
+                return null;
+            }
+        }
+
+        // Import des anciennes sauvegardes
         try (FileInputStream fis = new FileInputStream(file);
              ObjectInputStream ois = new ObjectInputStream(fis)) {
 
@@ -897,14 +1305,23 @@ public class BinairoSolver extends CSPSearchBase {
     }
 
     /**
-     * Retourne la liste des fichiers de sauvegarde disponibles.
+     * Retourne la liste des fichiers de sauvegarde disponibles (nouveau et ancien format), du plus récent au plus ancien.
      */
     public String[] listSavedGames() {
+        List<SaveIndex.Entry> entries = listSavedGameEntries();
+        String[] names = new String[entries.size()];
+        for (int i = 0; i < names.length; i++) names[i] = entries.get(i).getFileName();
+        return names;
+    }
+
+    /**
+     * Retourne les sauvegardes avec leurs métadonnées (taille, remplissage, date, statut) lues dans l'index.
+     */
+    public List<SaveIndex.Entry> listSavedGameEntries() {
         File dir = new File(SAVE_DIRECTORY);
         if (!dir.exists() || !dir.isDirectory()) {
-            return new String[0];
+            return new ArrayList<>();
         }
-        // Filtrer uniquement les fichiers .ser
-        return dir.list((d, name) -> name.endsWith(".ser"));
+        return saveIndex.list();
     }
 }
\ No newline at end of file
@@ -0,0 +1,374 @@
+package com.lsiproject.app;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * Recherche en profondeur itérative sur un BitboardState.
+ * La pile de décisions est explicite : chaque appel à nextSolution() reprend la recherche
+ * là où elle s'était arrêtée, ce qui permet de compter ou d'énumérer les solutions une à une.
+ * La pile et la trace suffisent à décrire la position de la recherche : elles peuvent être enregistrées
+ * périodiquement (voir setCheckpoint) pour reprendre une recherche longue après un redémarrage.
+ */
+public class BitboardSearch {
+
+    private final BitboardState state;
+
+    // Pile de décisions : case branchée, marque de la trace avant la décision, valeurs déjà essayées
+    private final int[] stackCell;
+    private final int[] stackMark;
+    private final byte[] stackTried;
+    private final byte[] stackFirst;
+    private int depth;
+
+    private boolean started;
+    private boolean exhausted;
+    private boolean stopped;
+
+    private long nodes;
+    private long resumedNodes; // Nœuds déjà comptés par la recherche enregistrée (fromCheckpoint), hors budget
+    private SearchLimits limits;
+    private Random random; // Ordre aléatoire des valeurs (null : 0 puis 1)
+    private SymmetryBreaker symmetry; // Contrainte lex-leader (null : désactivée)
+    private int orbitSize = 1;
+
+    private int clueMark; // Nombre d'assignations présentes avant la recherche (les indices)
+    private long solutionCount; // Solutions produites, pondérées par la taille de leur orbite
+    private long[] firstSolution; // Masques des 1 par ligne de la première solution (null : aucune)
+
+    // Points de reprise (null : désactivés)
+    private SearchCheckpoint checkpoint;
+    private long checkpointIntervalNanos;
+    private long nextCheckpointNanos;
+
+    public BitboardSearch(BitboardState state) {
+        this.state = state;
+        int cells = state.getSize() * state.getSize();
+        this.stackCell = new int[cells];
+        this.stackMark = new int[cells];
+        this.stackTried = new byte[cells];
+        this.stackFirst = new byte[cells];
+        this.clueMark = state.mark();
+    }
+
+    public BitboardState getState() { return state; }
+    public long getNodes() { return nodes; }
+    public int getDepth() { return depth; }
+    public boolean isExhausted() { return exhausted; }
+
+    /**
+     * @return Le nombre de solutions produites depuis le début de la recherche, reprises comprises
+     * (pondéré par la taille des orbites avec la brisure de symétries).
+     */
+    public long getSolutionCount() { return solutionCount; }
+
+    /**
+     * @return Le nombre d'assignations qui servent d'indices (les premières de la trace de l'état).
+     */
+    public int getClueCount() { return clueMark; }
+
+    /**
+     * @return La première solution produite (conservée dans les points de reprise), ou null.
+     */
+    public BinairoGrid getFirstSolution() {
+        if (firstSolution == null) return null;
+        int size = state.getSize();
+        BinairoGrid grid = new BinairoGrid(size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                grid.setValue(r, c, (int) (firstSolution[r] >>> c) & 1);
+            }
+        }
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+
+    /**
+     * @return true si la recherche a été interrompue par les limites (délai, budget, annulation).
+     */
+    public boolean wasStopped() { return stopped; }
+
+    /**
+     * Budget de nœuds et annulation sont vérifiés à chaque nœud (arrêt exact au budget) ;
+     * l'échéance, qui coûte une lecture de l'horloge, n'est lue que tous les 1024 nœuds.
+     */
+    public void setLimits(SearchLimits limits) { this.limits = limits; }
+
+    /**
+     * Active un ordre aléatoire (reproductible) pour la première valeur essayée à chaque décision.
+     */
+    public void setRandom(Random random) { this.random = random; }
+
+    /**
+     * Active ou désactive la brisure des symétries qui laissent les indices invariants (voir SymmetryBreaker).
+     * Seule une solution par orbite est alors produite, et getOrbitSize() indique combien elle en représente.
+     * À appeler avant la première recherche : les valeurs présentes dans l'état sont prises pour les indices.
+     */
+    public void setSymmetryBreaking(boolean enabled) {
+        this.symmetry = enabled ? SymmetryBreaker.forState(state) : null;
+    }
+
+    /**
+     * @return Le nombre de transformations conservant les indices (1 si la brisure de symétries est désactivée).
+     */
+    public int getSymmetryGroupSize() { return symmetry == null ? 1 : symmetry.getGroupSize(); }
+
+    /**
+     * @return Le nombre de solutions représentées par la dernière solution produite (1 sans brisure de symétries).
+     */
+    public int getOrbitSize() { return orbitSize; }
+
+    /**
+     * Redémarre la recherche depuis l'état courant (les assignations déjà présentes servent d'indices).
+     */
+    public void restart() {
+        clueMark = state.mark();
+        solutionCount = 0;
+        firstSolution = null;
+        depth = 0;
+        started = false;
+        exhausted = false;
+        stopped = false;
+        nodes = 0;
+        resumedNodes = 0;
+    }
+
+    /**
+     * Avance jusqu'à la prochaine solution.
+     * En cas de succès, l'état contient la solution complète jusqu'au prochain appel.
+     * @return false si toutes les solutions ont été énumérées ou si la recherche a été interrompue.
+     */
+    public boolean nextSolution() {
+        if (exhausted || stopped) return false;
+
+        if (!started) {
+            started = true;
+            nodes++;
+            if (!state.propagate() || !isLexLeaderCompatible()) return exhaust();
+            if (state.isFull()) return solutionFound(); // Grille déjà complète : solution unique à la racine
+            pushDecision();
+        } else if (depth == 0) {
+            return exhaust();
+        }
+
+        while (depth > 0) {
+            if (limits != null && (limits.isOverBudget(nodes - resumedNodes)
+                    || (nodes & 0x3FF) == 0 && limits.shouldStop(nodes - resumedNodes))) {
+                stopped = true;
+                if (checkpoint != null) saveCheckpoint(); // Reprise exacte après une interruption
+                return false;
+            }
+            if (checkpoint != null && (nodes & 0x3FF) == 0 && System.nanoTime() - nextCheckpointNanos >= 0) {
+                saveCheckpoint();
+            }
+
+            int top = depth - 1;
+            state.undo(stackMark[top]);
+            if (stackTried[top] == 2) {
+                depth--;
+                continue;
+            }
+
+            int val = stackTried[top] == 0 ? stackFirst[top] : 1 - stackFirst[top];
+            stackTried[top]++;
+            nodes++;
+
+            int cell = stackCell[top];
+            int size = state.getSize();
+            if (state.assign(cell / size, cell % size, val) && state.propagate() && isLexLeaderCompatible()) {
+                if (state.isFull()) return solutionFound();
+                pushDecision();
+            }
+        }
+        return exhaust();
+    }
+
+    /**
+     * Compte les solutions à partir de la position courante de la recherche.
+     * Avec la brisure de symétries, chaque solution produite compte pour la taille de son orbite.
+     * @param cap Arrêt dès que ce nombre est atteint (<= 0 : comptage exhaustif).
+     */
+    public long countSolutions(long cap) {
+        long count = 0;
+        while ((cap <= 0 || count < cap) && nextSolution()) {
+            count += orbitSize;
+        }
+        return count;
+    }
+
+    private void pushDecision() {
+        int cell = state.selectBranchCell();
+        stackCell[depth] = cell;
+        stackMark[depth] = state.mark();
+        stackTried[depth] = 0;
+        stackFirst[depth] = (byte) (random != null && random.nextBoolean() ? BinairoGrid.ONE : BinairoGrid.ZERO);
+        depth++;
+    }
+
+    private boolean isLexLeaderCompatible() {
+        return symmetry == null || symmetry.isLexLeaderCompatible(state);
+    }
+
+    private boolean solutionFound() {
+        orbitSize = symmetry == null ? 1 : symmetry.orbitSize(state);
+        if (firstSolution == null) {
+            firstSolution = new long[state.getSize()];
+            for (int r = 0; r < firstSolution.length; r++) firstSolution[r] = state.getRowOnes(r);
+        }
+        solutionCount += orbitSize;
+        return true;
+    }
+
+    // --- Points de reprise ---
+
+    /**
+     * Enregistre périodiquement la position de la recherche.
+     * Le coût dans la recherche se limite à une copie de la pile et de la trace (O(N²)) par intervalle,
+     * l'écriture sur disque étant faite par le thread de SearchCheckpoint.
+     * @param checkpoint Destination des instantanés (null : désactivé).
+     */
+    public void setCheckpoint(SearchCheckpoint checkpoint, long intervalMillis) {
+        this.checkpoint = checkpoint;
+        this.checkpointIntervalNanos = Math.max(1, intervalMillis) * 1_000_000L;
+        this.nextCheckpointNanos = System.nanoTime() + checkpointIntervalNanos;
+    }
+
+    private void saveCheckpoint() {
+        checkpoint.submit(toCheckpoint());
+        nextCheckpointNanos = System.nanoTime() + checkpointIntervalNanos;
+    }
+
+    private static final int CP_STARTED = 1;
+    private static final int CP_EXHAUSTED = 2;
+    private static final int CP_SYMMETRY = 4;
+    private static final int CP_SOLUTION = 8;
+
+    /**
+     * Copie compacte de la position de la recherche, à appeler entre deux nextSolution().
+     * Structure : taille (2) | options (1) | nœuds (8) | solutions (8) | taille d'orbite (4)
+     *   | indices (2) | trace : T (2), T cases (2 chacune), T valeurs (1 bit chacune)
+     *   | pile : profondeur P (2), P décisions (case 2, marque 2, valeurs essayées et première valeur 1)
+     *   | première solution (si l'option est présente) : N masques de 8 octets.
+     * L'ordre aléatoire des valeurs (setRandom) n'est pas enregistré : les décisions suivant une reprise
+     * tirent leur première valeur d'un nouveau générateur, l'énumération restant complète.
+     */
+    public byte[] toCheckpoint() {
+        int size = state.getSize();
+        int trailSize = state.getTrailSize();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + trailSize * 3 + depth * 5 + size * 8);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(size);
+            out.writeByte((started ? CP_STARTED : 0) | (exhausted ? CP_EXHAUSTED : 0)
+                    | (symmetry != null ? CP_SYMMETRY : 0) | (firstSolution != null ? CP_SOLUTION : 0));
+            out.writeLong(nodes);
+            out.writeLong(solutionCount);
+            out.writeInt(orbitSize);
+            out.writeShort(clueMark);
+
+            out.writeShort(trailSize);
+            byte[] values = new byte[(trailSize + 7) / 8];
+            for (int i = 0; i < trailSize; i++) {
+                int cell = state.getTrailCell(i);
+                out.writeShort(cell);
+                if (state.getValue(cell / size, cell % size) == BinairoGrid.ONE) values[i >> 3] |= (byte) (1 << (i & 7));
+            }
+            out.write(values);
+
+            out.writeShort(depth);
+            for (int i = 0; i < depth; i++) {
+                out.writeShort(stackCell[i]);
+                out.writeShort(stackMark[i]);
+                out.writeByte(stackTried[i] | stackFirst[i] << 2);
+            }
+
+            if (firstSolution != null) {
+                for (long row : firstSolution) out.writeLong(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Impossible en mémoire
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reconstruit une recherche à partir d'un instantané de toCheckpoint() : le prochain nextSolution()
+     * reprend exactement là où la recherche enregistrée s'était arrêtée.
+     * Les limites, l'ordre aléatoire et les points de reprise sont à reconfigurer ; getNodes() inclut
+     * les nœuds déjà explorés, mais le budget de nœuds des limites porte sur ceux de cette reprise seulement.
+     * @throws IOException Si l'instantané est incohérent.
+     */
+    public static BitboardSearch fromCheckpoint(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int size = in.readUnsignedShort();
+            if (size < 2 || size > BitboardState.MAX_SIZE) throw new IOException("Taille invalide : " + size);
+            int flags = in.readUnsignedByte();
+            long nodes = in.readLong();
+            long solutionCount = in.readLong();
+            int orbitSize = in.readInt();
+            int clueMark = in.readUnsignedShort();
+
+            int trailSize = in.readUnsignedShort();
+            if (clueMark > trailSize || trailSize > size * size) throw new IOException("Trace invalide");
+            int[] cells = new int[trailSize];
+            for (int i = 0; i < trailSize; i++) cells[i] = in.readUnsignedShort();
+            byte[] values = new byte[(trailSize + 7) / 8];
+            in.readFully(values);
+
+            // Les indices d'abord (groupe de symétries calculé sur eux seuls), puis le reste de la trace
+            BitboardState state = new BitboardState(size);
+            BitboardSearch search = null;
+            for (int i = 0; i <= trailSize; i++) {
+                if (i == clueMark) {
+                    search = new BitboardSearch(state);
+                    if ((flags & CP_SYMMETRY) != 0) search.setSymmetryBreaking(true);
+                }
+                if (i == trailSize) break;
+                int cell = cells[i];
+                int val = (values[i >> 3] >>> (i & 7)) & 1;
+                if (cell >= size * size || state.getValue(cell / size, cell % size) != BinairoGrid.EMPTY
+                        || !state.assign(cell / size, cell % size, val)) {
+                    throw new IOException("Trace invalide à la position " + i);
+                }
+            }
+            state.undo(state.mark()); // Vide la file de révision sans rien annuler
+
+            int depth = in.readUnsignedShort();
+            if (depth > size * size) throw new IOException("Pile invalide");
+            for (int i = 0; i < depth; i++) {
+                search.stackCell[i] = in.readUnsignedShort();
+                search.stackMark[i] = in.readUnsignedShort();
+                int tried = in.readUnsignedByte();
+                search.stackTried[i] = (byte) (tried & 3);
+                search.stackFirst[i] = (byte) ((tried >>> 2) & 1);
+                if (search.stackMark[i] > trailSize || search.stackCell[i] >= size * size) {
+                    throw new IOException("Pile invalide à la profondeur " + i);
+                }
+            }
+
+            if ((flags & CP_SOLUTION) != 0) {
+                search.firstSolution = new long[size];
+                for (int r = 0; r < size; r++) search.firstSolution[r] = in.readLong();
+            }
+
+            search.depth = depth;
+            search.started = (flags & CP_STARTED) != 0;
+            search.exhausted = (flags & CP_EXHAUSTED) != 0;
+            search.nodes = nodes;
+            search.resumedNodes = nodes;
+            search.solutionCount = solutionCount;
+            search.orbitSize = orbitSize;
+            return search;
+        }
+    }
+
+    private boolean exhaust() {
+        exhausted = true;
+        depth = 0;
+        return false;
+    }
+}
@@ -0,0 +1,336 @@
+package com.lsiproject.app;
+
+/**
+ * Représentation compacte d'une grille pour la recherche rapide (taille <= 64).
+ * Chaque ligne et chaque colonne est stockée sous forme de deux masques de bits (0 et 1),
+ * ce qui permet d'appliquer les règles R1, R2 et R3 par opérations bit à bit.
+ * Les assignations sont empilées sur une trace (trail) pour pouvoir être annulées en O(1) par cellule.
+ */
+public class BitboardState {
+
+    public static final int MAX_SIZE = 64;
+
+    private final int size;
+    private final long fullMask;
+    private final int maxPerValue;
+
+    // Bit k de rowOnes[r] : la cellule (r, k) vaut 1. Bit k de colOnes[c] : la cellule (k, c) vaut 1.
+    private final long[] rowOnes;
+    private final long[] rowZeros;
+    private final long[] colOnes;
+    private final long[] colZeros;
+    private int filled;
+
+    // Trace des cellules assignées (index r * size + c), dans l'ordre d'assignation
+    private final int[] trail;
+    private int trailSize;
+
+    // File des lignes à réviser : 0..size-1 pour les lignes, size..2*size-1 pour les colonnes
+    private final int[] queue;
+    private final boolean[] queued;
+    private int queueHead;
+    private int queueCount;
+
+    public BitboardState(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Taille non supportée par la recherche rapide : " + size);
+        }
+        this.size = size;
+        this.fullMask = size == 64 ? -1L : (1L << size) - 1;
+        this.maxPerValue = (size + 1) / 2;
+        this.rowOnes = new long[size];
+        this.rowZeros = new long[size];
+        this.colOnes = new long[size];
+        this.colZeros = new long[size];
+        this.trail = new int[size * size];
+        this.queue = new int[2 * size];
+        this.queued = new boolean[2 * size];
+    }
+
+    /**
+     * Crée un état contenant les valeurs déjà placées de la grille (sans propagation).
+     */
+    public static BitboardState fromGrid(BinairoGrid grid) {
+        BitboardState state = new BitboardState(grid.getSize());
+        state.load(grid);
+        return state;
+    }
+
+    /**
+     * Réinitialise l'état puis place les valeurs de la grille (sans propagation).
+     */
+    public void load(BinairoGrid grid) {
+        reset();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int val = grid.getValue(r, c);
+                if (val != BinairoGrid.EMPTY) assign(r, c, val);
+            }
+        }
+    }
+
+    public void reset() {
+        clearQueue();
+        for (int i = 0; i < size; i++) {
+            rowOnes[i] = 0;
+            rowZeros[i] = 0;
+            colOnes[i] = 0;
+            colZeros[i] = 0;
+        }
+        filled = 0;
+        trailSize = 0;
+    }
+
+    // --- Méthodes d'accès ---
+
+    public int getSize() { return size; }
+    public boolean isFull() { return filled == size * size; }
+    public int getFilledCount() { return filled; }
+    public int getTrailSize() { return trailSize; }
+
+    /**
+     * @return L'index (r * size + c) de la i-ème cellule assignée.
+     */
+    public int getTrailCell(int i) { return trail[i]; }
+
+    public int getValue(int r, int c) {
+        long bit = 1L << c;
+        if ((rowOnes[r] & bit) != 0) return BinairoGrid.ONE;
+        if ((rowZeros[r] & bit) != 0) return BinairoGrid.ZERO;
+        return BinairoGrid.EMPTY;
+    }
+
+    public long getRowOnes(int r) { return rowOnes[r]; }
+    public long getRowZeros(int r) { return rowZeros[r]; }
+    public long getColOnes(int c) { return colOnes[c]; }
+    public long getColZeros(int c) { return colZeros[c]; }
+
+    // --- Assignation et annulation ---
+
+    /**
+     * Place une valeur et marque sa ligne et sa colonne pour révision.
+     * @return false si la cellule contient déjà l'autre valeur.
+     */
+    public boolean assign(int r, int c, int val) {
+        long colBit = 1L << c;
+        if (((rowOnes[r] | rowZeros[r]) & colBit) != 0) {
+            return getValue(r, c) == val;
+        }
+        long rowBit = 1L << r;
+        if (val == BinairoGrid.ONE) {
+            rowOnes[r] |= colBit;
+            colOnes[c] |= rowBit;
+        } else {
+            rowZeros[r] |= colBit;
+            colZeros[c] |= rowBit;
+        }
+        trail[trailSize++] = r * size + c;
+        filled++;
+        enqueue(r);
+        enqueue(size + c);
+        // R3 : une ligne qui devient complète peut forcer les lignes parallèles à deux cases vides
+        if ((rowOnes[r] | rowZeros[r]) == fullMask) enqueueNearlyFull(true);
+        if ((colOnes[c] | colZeros[c]) == fullMask) enqueueNearlyFull(false);
+        return true;
+    }
+
+    private void enqueueNearlyFull(boolean rows) {
+        long[] ones = rows ? rowOnes : colOnes;
+        long[] zeros = rows ? rowZeros : colZeros;
+        int offset = rows ? 0 : size;
+        for (int i = 0; i < size; i++) {
+            if (Long.bitCount(fullMask & ~(ones[i] | zeros[i])) == 2) enqueue(offset + i);
+        }
+    }
+
+    /**
+     * @return Une marque à passer à undo() pour revenir à l'état actuel.
+     */
+    public int mark() { return trailSize; }
+
+    /**
+     * Annule toutes les assignations effectuées depuis la marque donnée.
+     */
+    public void undo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            int r = cell / size;
+            int c = cell % size;
+            long colMask = ~(1L << c);
+            long rowMask = ~(1L << r);
+            rowOnes[r] &= colMask;
+            rowZeros[r] &= colMask;
+            colOnes[c] &= rowMask;
+            colZeros[c] &= rowMask;
+            filled--;
+        }
+        clearQueue();
+    }
+
+    // --- Propagation ---
+
+    /**
+     * Applique les règles jusqu'au point fixe : paires et sandwichs (R1), complétion de l'équilibre (R2),
+     * unicité des lignes complètes et des lignes presque complètes (R3).
+     * @return false si une contradiction est détectée.
+     */
+    public boolean propagate() {
+        while (queueCount > 0) {
+            int line = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            queueCount--;
+            queued[line] = false;
+
+            boolean consistent = line < size ? reviseLine(true, line) : reviseLine(false, line - size);
+            if (!consistent) {
+                clearQueue();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean reviseLine(boolean isRow, int index) {
+        long ones = isRow ? rowOnes[index] : colOnes[index];
+        long zeros = isRow ? rowZeros[index] : colZeros[index];
+        long empty = fullMask & ~(ones | zeros);
+
+        // R1 : aucun triple
+        if (hasTriple(ones) || hasTriple(zeros)) return false;
+
+        // R2 : limite N/2
+        int count1 = Long.bitCount(ones);
+        int count0 = Long.bitCount(zeros);
+        if (count1 > maxPerValue || count0 > maxPerValue) return false;
+
+        if (empty == 0) {
+            // R3 : une ligne complète doit être unique
+            return !hasDuplicate(isRow, index, ones);
+        }
+
+        long forceZero = (nextToPair(ones) | sandwiched(ones)) & empty;
+        long forceOne = (nextToPair(zeros) | sandwiched(zeros)) & empty;
+        if (count1 == maxPerValue) forceZero |= empty;
+        if (count0 == maxPerValue) forceOne |= empty;
+        if ((forceZero & forceOne) != 0) return false;
+
+        if ((forceZero | forceOne) == 0 && Long.bitCount(empty) == 2
+                && count0 == maxPerValue - 1 && count1 == maxPerValue - 1) {
+            // R3 : les deux cases restantes ne peuvent pas reproduire une ligne complète existante
+            long twin = findCompatibleFullLine(isRow, index, ones, ones | zeros);
+            if (twin != -1) {
+                forceZero = twin & empty;
+                forceOne = empty & ~twin;
+            }
+        }
+
+        return assignLineBits(isRow, index, forceZero, BinairoGrid.ZERO)
+                && assignLineBits(isRow, index, forceOne, BinairoGrid.ONE);
+    }
+
+    private boolean assignLineBits(boolean isRow, int index, long bits, int val) {
+        while (bits != 0) {
+            int k = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            boolean ok = isRow ? assign(index, k, val) : assign(k, index, val);
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    static boolean hasTriple(long bits) {
+        return (bits & (bits >>> 1) & (bits >>> 2)) != 0;
+    }
+
+    // Cases voisines d'une paire identique (xx_ ou _xx)
+    static long nextToPair(long bits) {
+        long pairs = bits & (bits >>> 1);
+        return (pairs >>> 1) | (pairs << 2);
+    }
+
+    // Cases encadrées par deux valeurs identiques (x_x)
+    static long sandwiched(long bits) {
+        return (bits << 1) & (bits >>> 1);
+    }
+
+    private boolean hasDuplicate(boolean isRow, int index, long ones) {
+        long[] otherOnes = isRow ? rowOnes : colOnes;
+        long[] otherZeros = isRow ? rowZeros : colZeros;
+        for (int i = 0; i < size; i++) {
+            if (i != index && otherOnes[i] == ones && (otherOnes[i] | otherZeros[i]) == fullMask) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Les bits à 1 d'une ligne complète qui coïncide avec la ligne donnée sur ses cases remplies, ou -1.
+     */
+    private long findCompatibleFullLine(boolean isRow, int index, long ones, long filledMask) {
+        long[] otherOnes = isRow ? rowOnes : colOnes;
+        long[] otherZeros = isRow ? rowZeros : colZeros;
+        for (int i = 0; i < size; i++) {
+            if (i == index || (otherOnes[i] | otherZeros[i]) != fullMask) continue;
+            if ((otherOnes[i] & filledMask) == ones) return otherOnes[i];
+        }
+        return -1;
+    }
+
+    private void enqueue(int line) {
+        if (queued[line]) return;
+        queued[line] = true;
+        queue[(queueHead + queueCount) % queue.length] = line;
+        queueCount++;
+    }
+
+    private void clearQueue() {
+        for (int i = 0; i < queueCount; i++) {
+            queued[queue[(queueHead + i) % queue.length]] = false;
+        }
+        queueHead = 0;
+        queueCount = 0;
+    }
+
+    // --- Choix de la variable de branchement ---
+
+    /**
+     * Choisit une case vide dans la ligne ou la colonne la plus remplie (principe MVR appliqué aux lignes).
+     * @return L'index r * size + c de la case, ou -1 si la grille est pleine.
+     */
+    public int selectBranchCell() {
+        int bestLine = -1;
+        int bestEmpty = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int rowEmpty = size - Long.bitCount(rowOnes[i] | rowZeros[i]);
+            if (rowEmpty > 0 && rowEmpty < bestEmpty) {
+                bestEmpty = rowEmpty;
+                bestLine = i;
+            }
+            int colEmpty = size - Long.bitCount(colOnes[i] | colZeros[i]);
+            if (colEmpty > 0 && colEmpty < bestEmpty) {
+                bestEmpty = colEmpty;
+                bestLine = size + i;
+            }
+        }
+        if (bestLine == -1) return -1;
+        if (bestLine < size) {
+            long empty = fullMask & ~(rowOnes[bestLine] | rowZeros[bestLine]);
+            return bestLine * size + Long.numberOfTrailingZeros(empty);
+        }
+        int c = bestLine - size;
+        long empty = fullMask & ~(colOnes[c] | colZeros[c]);
+        return Long.numberOfTrailingZeros(empty) * size + c;
+    }
+
+    // --- Conversion ---
+
+    public BinairoGrid toGrid() {
+        BinairoGrid grid = new BinairoGrid(size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                grid.setValue(r, c, getValue(r, c));
+            }
+        }
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+}
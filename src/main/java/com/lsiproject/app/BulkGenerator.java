@@ -0,0 +1,359 @@
+package com.lsiproject.app;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Génération de grilles en masse, sans interface graphique.
+ * Trois étages parallèles reliés par des files bornées : génération, vérification de l'unicité, évaluation.
+ * Les grilles qui n'ont pas la difficulté visée repartent à la génération par une file de reprise non bornée
+ * (un étage aval ne bloque donc jamais sur un étage amont).
+ *
+ * Déterminisme : la graine de la tentative k de la grille i ne dépend que de (graine, i, k),
+ * et l'écriture passe par un tampon de réordonnancement : le fichier est identique d'une exécution à l'autre,
+ * quel que soit le nombre de threads.
+ *
+ * Format de sortie, une grille par ligne : index;taille;technique;score;grille
+ * (grille en ordre ligne par ligne, '.' pour une case vide, '0' ou '1' pour un indice ; relisible par PuzzleTextReader).
+ * Les grilles peuvent aussi être ajoutées, dans le même ordre, à une PuzzleDatabase.
+ */
+public class BulkGenerator {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 200;
+    private static final int QUEUE_CAPACITY = 256;
+    private static final long VERIFY_NODE_BUDGET = 1_000_000;
+
+    private final int size;
+    private final int count;
+    private final DifficultyRating.Level target;
+    private final long seed;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private int generationThreads;
+    private int verificationThreads;
+    private int ratingThreads;
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * @param target Technique la plus difficile exigée (null : toute difficulté acceptée).
+     */
+    public BulkGenerator(int size, int count, DifficultyRating.Level target, long seed) {
+        if (size < 2 || size % 2 != 0 || size > BitboardState.MAX_SIZE) {
+            throw new IllegalArgumentException("Taille non supportée : " + size);
+        }
+        this.size = size;
+        this.count = count;
+        this.target = target;
+        this.seed = seed;
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.generationThreads = Math.max(1, cores - cores / 4);
+        this.verificationThreads = Math.max(1, cores / 8);
+        this.ratingThreads = Math.max(1, cores / 8);
+    }
+
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public void setThreads(int generation, int verification, int rating) {
+        this.generationThreads = Math.max(1, generation);
+        this.verificationThreads = Math.max(1, verification);
+        this.ratingThreads = Math.max(1, rating);
+    }
+
+    /**
+     * @return Le nombre de grilles abandonnées après maxAttempts tentatives (absentes de la sortie).
+     */
+    public int getFailedCount() { return failed.get(); }
+
+    /**
+     * Graine d'une tentative, obtenue par mélange (SplitMix64) de la graine globale, de l'index et du numéro d'essai.
+     */
+    static long jobSeed(long seed, int index, int attempt) {
+        long z = seed + 0x9E3779B97F4A7C15L * (index + 1) + 0xC2B2AE3D27D4EB4FL * attempt;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Tâche circulant entre les étages. result == null signale une grille abandonnée
+     * (failure : l'exception qui l'a interrompue, null si les tentatives sont épuisées).
+     */
+    private static final class Job {
+        final int index;
+        final int attempt;
+        GridResolution puzzle;
+        String result;
+        String failure;
+        BinairoGrid grid;               // Grille retenue et son évaluation (écriture en base)
+        DifficultyRating.Level level;
+        int score;
+
+        Job(int index, int attempt) {
+            this.index = index;
+            this.attempt = attempt;
+        }
+    }
+
+    /**
+     * Destination des grilles retenues, appelée dans l'ordre des index.
+     */
+    private interface Sink {
+        void accept(Job job) throws IOException;
+    }
+
+    /**
+     * Génère les grilles et les écrit au fur et à mesure dans out.
+     * @return Le nombre de grilles écrites.
+     */
+    public int run(Writer out) throws IOException, InterruptedException {
+        int written = run(job -> {
+            out.write(job.result);
+            out.write('\n');
+        });
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Génère les grilles et les ajoute au fur et à mesure à la base (segment d'ajout).
+     * @return Le nombre de grilles ajoutées.
+     */
+    public int run(PuzzleDatabase database) throws IOException, InterruptedException {
+        return run(job -> database.append(job.grid, job.level, job.score));
+    }
+
+    private int run(Sink sink) throws IOException, InterruptedException {
+        BlockingQueue<Job> toVerify = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Job> toRate = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Job> toWrite = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Job> retries = new LinkedBlockingQueue<>();
+        // Limite le nombre de grilles en cours : borne aussi le tampon de réordonnancement
+        Semaphore window = new Semaphore(4 * QUEUE_CAPACITY);
+        AtomicInteger nextIndex = new AtomicInteger();
+        failed.set(0);
+
+        ExecutorService workers = Executors.newFixedThreadPool(generationThreads + verificationThreads + ratingThreads);
+        try {
+            for (int i = 0; i < generationThreads; i++) {
+                workers.execute(() -> generationStage(nextIndex, window, retries, toVerify, toWrite));
+            }
+            for (int i = 0; i < verificationThreads; i++) {
+                workers.execute(() -> verificationStage(toVerify, toRate, retries, toWrite));
+            }
+            for (int i = 0; i < ratingThreads; i++) {
+                workers.execute(() -> ratingStage(toRate, retries, toWrite));
+            }
+            return writeInOrder(sink, toWrite, window);
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Étage 1 : les reprises sont prioritaires sur les nouvelles grilles.
+     */
+    private void generationStage(AtomicInteger nextIndex, Semaphore window, BlockingQueue<Job> retries,
+                                 BlockingQueue<Job> toVerify, BlockingQueue<Job> toWrite) {
+        try {
+            while (true) {
+                Job job = retries.poll();
+                if (job == null) {
+                    if (nextIndex.get() < count && window.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+                        int index = nextIndex.getAndIncrement();
+                        if (index >= count) {
+                            window.release();
+                            continue;
+                        }
+                        job = new Job(index, 0);
+                    } else {
+                        job = retries.poll(10, TimeUnit.MILLISECONDS);
+                        if (job == null) continue;
+                    }
+                }
+                try {
+                    job.puzzle = new PuzzleGenerator(jobSeed(seed, job.index, job.attempt)).generate(size);
+                } catch (RuntimeException e) {
+                    fail(job, e, toWrite);
+                    continue;
+                }
+                toVerify.put(job);
+            }
+        } catch (InterruptedException e) {
+            // Arrêt du pipeline
+        }
+    }
+
+    /**
+     * Étage 2 : vérification indépendante de l'unicité (au plus 2 solutions comptées).
+     */
+    private void verificationStage(BlockingQueue<Job> toVerify, BlockingQueue<Job> toRate,
+                                   BlockingQueue<Job> retries, BlockingQueue<Job> toWrite) {
+        try {
+            while (true) {
+                Job job = toVerify.take();
+                boolean unique;
+                try {
+                    BitboardSearch search = new BitboardSearch(BitboardState.fromGrid(job.puzzle.getInitialGrid()));
+                    search.setLimits(new SearchLimits(0, VERIFY_NODE_BUDGET));
+                    unique = search.countSolutions(2) == 1 && !search.wasStopped();
+                } catch (RuntimeException e) {
+                    fail(job, e, toWrite);
+                    continue;
+                }
+                if (unique) {
+                    toRate.put(job);
+                } else {
+                    retryOrFail(job, retries, toWrite);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Arrêt du pipeline
+        }
+    }
+
+    /**
+     * Étage 3 : évaluation et filtrage par difficulté.
+     */
+    private void ratingStage(BlockingQueue<Job> toRate, BlockingQueue<Job> retries, BlockingQueue<Job> toWrite) {
+        DifficultyRater rater = new DifficultyRater();
+        try {
+            while (true) {
+                Job job = toRate.take();
+                BinairoGrid puzzle = job.puzzle.getInitialGrid();
+                DifficultyRating rating;
+                try {
+                    rating = rater.rate(puzzle);
+                } catch (RuntimeException e) {
+                    fail(job, e, toWrite);
+                    continue;
+                }
+                if (rating.isInvalid()) { // Ne devrait pas arriver après la vérification : jamais noté ni écrit
+                    retryOrFail(job, retries, toWrite);
+                    continue;
+                }
+                DifficultyRating.Level level = rating.isSolved() ? rating.getHardestLevel() : DifficultyRating.Level.GUESS;
+                if (target != null && level != target) {
+                    retryOrFail(job, retries, toWrite);
+                    continue;
+                }
+                job.result = job.index + ";" + size + ";" + (level == null ? "NONE" : level.name()) + ";"
+                        + rating.getScore() + ";" + PuzzleTextWriter.toLine(puzzle);
+                job.grid = puzzle;
+                job.level = level;
+                job.score = rating.getScore();
+                job.puzzle = null;
+                toWrite.put(job);
+            }
+        } catch (InterruptedException e) {
+            // Arrêt du pipeline
+        }
+    }
+
+    /**
+     * Une exception dans un étage abandonne la grille sans arrêter le travailleur : le rédacteur reçoit
+     * quand même son index (sinon il attendrait indéfiniment dans le tampon de réordonnancement).
+     */
+    private void fail(Job job, RuntimeException e, BlockingQueue<Job> toWrite) throws InterruptedException {
+        job.puzzle = null;
+        job.result = null;
+        job.failure = e.toString();
+        toWrite.put(job);
+    }
+
+    private void retryOrFail(Job job, BlockingQueue<Job> retries, BlockingQueue<Job> toWrite) throws InterruptedException {
+        if (job.attempt + 1 < maxAttempts) {
+            retries.put(new Job(job.index, job.attempt + 1));
+        } else {
+            job.puzzle = null;
+            toWrite.put(job); // result == null : grille abandonnée
+        }
+    }
+
+    /**
+     * Écrit les résultats dans l'ordre des index (tampon de réordonnancement).
+     */
+    private int writeInOrder(Sink sink, BlockingQueue<Job> toWrite, Semaphore window)
+            throws IOException, InterruptedException {
+        Map<Integer, Job> pending = new HashMap<>();
+        int nextToWrite = 0;
+        int written = 0;
+        while (nextToWrite < count) {
+            Job job = toWrite.take();
+            pending.put(job.index, job);
+            while ((job = pending.remove(nextToWrite)) != null) {
+                if (job.result != null) {
+                    sink.accept(job);
+                    written++;
+                } else {
+                    failed.incrementAndGet();
+                    System.err.println("Grille " + job.index + " abandonnée " + (job.failure != null
+                            ? "sur erreur : " + job.failure : "après " + maxAttempts + " tentatives."));
+                }
+                nextToWrite++;
+                window.release();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Usage : BulkGenerator taille nombre difficulté graine fichier
+     * (difficulté : nom d'une technique, par ex. LOOKAHEAD, ou ANY ; si fichier est un répertoire,
+     * les grilles sont ajoutées à la base de grilles qu'il contient).
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage : BulkGenerator <taille> <nombre> <difficulté|ANY> <graine> <fichier|répertoire de base>");
+            System.err.println("Difficultés : ANY, PAIRS, SANDWICH, BALANCE, LINE_PATTERNS, UNIQUENESS, LOOKAHEAD, GUESS");
+            return;
+        }
+        try {
+            int size = Integer.parseInt(args[0]);
+            int count = Integer.parseInt(args[1]);
+            DifficultyRating.Level target = args[2].equalsIgnoreCase("ANY") ? null
+                    : DifficultyRating.Level.valueOf(args[2].toUpperCase());
+            long seed = Long.parseLong(args[3]);
+            Path output = Paths.get(args[4]);
+
+            BulkGenerator generator = new BulkGenerator(size, count, target, seed);
+            long start = System.nanoTime();
+            int written;
+            if (Files.isDirectory(output)) {
+                try (PuzzleDatabase database = new PuzzleDatabase(output)) {
+                    written = generator.run(database);
+                    database.compact(size); // Les nouvelles grilles rejoignent le segment projeté
+                }
+            } else {
+                try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.US_ASCII)) {
+                    written = generator.run(out);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d grilles écrites dans %s en %.2f s (%.0f grilles/min), %d abandonnées.%n",
+                    written, output, seconds, written / seconds * 60, generator.getFailedCount());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Paramètre invalide : " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture : " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Génération interrompue.");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.lsiproject.app;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validation incrémentale d'une grille en cours de jeu.
+ * Pour chaque ligne et chaque colonne, on maintient les cases en infraction :
+ * R1 (cases appartenant à un triple), R2 (valeur dépassant N/2), R3 (ligne complète identique à une autre).
+ * Modifier une case ne révise que sa ligne, sa colonne et les lignes complètes de même contenu : O(N) par coup,
+ * et la question « cette case est-elle en conflit ? » coûte O(1).
+ *
+ * Index des lignes révisées (getDirtyLines) : 0..N-1 pour les lignes, N..2N-1 pour les colonnes.
+ * Cases dont l'état de conflit a changé (getChangedCells) : r * N + c.
+ */
+public class ConflictTracker {
+
+    private final int size;
+    private final int maxPerValue;
+    private final int[][] values;
+    private int filled;
+
+    // R1 : rowTriple[r][c] = la case (r, c) fait partie d'un triple de la ligne r ; colTriple[c][r] pour la colonne c
+    private final boolean[][] rowTriple;
+    private final boolean[][] colTriple;
+    private final int[][] rowCounts; // [ligne][valeur]
+    private final int[][] colCounts;
+    // R2 : valeur en excès dans la ligne (EMPTY si aucune)
+    private final int[] rowExcess;
+    private final int[] colExcess;
+    // R3 : ligne complète en double
+    private final boolean[] rowDuplicate;
+    private final boolean[] colDuplicate;
+    // Lignes complètes indexées par contenu
+    private final Map<String, List<Integer>> fullRows = new HashMap<>();
+    private final Map<String, List<Integer>> fullCols = new HashMap<>();
+
+    private final int[] lineViolations; // Nombre de règles violées par ligne (0..3)
+    private int violatingLines;
+    private final List<Integer> dirtyLines = new ArrayList<>();
+    private final boolean[] dirty; // dirty[ligne] : la ligne est déjà dans dirtyLines
+    private final List<Integer> watchedCells = new ArrayList<>(); // Cases des lignes révisées, sans doublon
+    private final List<Integer> changedCells = new ArrayList<>();
+
+    public ConflictTracker(BinairoGrid grid) {
+        this.size = grid.getSize();
+        this.maxPerValue = (size + 1) / 2;
+        this.values = new int[size][size];
+        this.rowTriple = new boolean[size][size];
+        this.colTriple = new boolean[size][size];
+        this.rowCounts = new int[size][2];
+        this.colCounts = new int[size][2];
+        this.rowExcess = new int[size];
+        this.colExcess = new int[size];
+        this.rowDuplicate = new boolean[size];
+        this.colDuplicate = new boolean[size];
+        this.lineViolations = new int[2 * size];
+        this.dirty = new boolean[2 * size];
+
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int val = grid.getValue(r, c);
+                values[r][c] = val;
+                if (val != BinairoGrid.EMPTY) {
+                    rowCounts[r][val]++;
+                    colCounts[c][val]++;
+                    filled++;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            String rowKey = lineKey(true, i);
+            if (rowKey != null) fullRows.computeIfAbsent(rowKey, k -> new ArrayList<>()).add(i);
+            String colKey = lineKey(false, i);
+            if (colKey != null) fullCols.computeIfAbsent(colKey, k -> new ArrayList<>()).add(i);
+        }
+        for (int i = 0; i < size; i++) {
+            reviseLine(true, i);
+            reviseLine(false, i);
+        }
+        clearDirtyLines();
+    }
+
+    public int getSize() { return size; }
+
+    public boolean isFull() { return filled == size * size; }
+
+    /**
+     * @return true si au moins une règle est violée quelque part dans la grille.
+     */
+    public boolean hasConflicts() { return violatingLines > 0; }
+
+    /**
+     * @return true si la grille est complète et ne viole aucune règle.
+     */
+    public boolean isSolved() { return isFull() && !hasConflicts(); }
+
+    /**
+     * @return Les lignes (0..N-1) et colonnes (N..2N-1) révisées lors de la dernière modification.
+     */
+    public List<Integer> getDirtyLines() { return dirtyLines; }
+
+    /**
+     * @return Les cases (r * N + c) dont isConflict a changé lors de la dernière modification,
+     * la case modifiée exceptée : seules celles-ci sont à redessiner en plus d'elle.
+     */
+    public List<Integer> getChangedCells() { return changedCells; }
+
+    /**
+     * Modifie une case (EMPTY pour l'effacer) et met à jour les infractions.
+     */
+    public void set(int r, int c, int val) {
+        int old = values[r][c];
+        clearDirtyLines();
+        changedCells.clear();
+        if (old == val) return;
+
+        String oldRowKey = lineKey(true, r);
+        String oldColKey = lineKey(false, c);
+        if (old != BinairoGrid.EMPTY) {
+            rowCounts[r][old]--;
+            colCounts[c][old]--;
+            filled--;
+        }
+        values[r][c] = val;
+        if (val != BinairoGrid.EMPTY) {
+            rowCounts[r][val]++;
+            colCounts[c][val]++;
+            filled++;
+        }
+
+        updateFullLines(true, r, oldRowKey, lineKey(true, r));
+        updateFullLines(false, c, oldColKey, lineKey(false, c));
+        markDirty(r);
+        markDirty(size + c);
+
+        // Seules les cases des lignes révisées peuvent changer d'état : on compare avant et après révision
+        collectWatchedCells(r * size + c);
+        boolean[] before = new boolean[watchedCells.size()];
+        for (int i = 0; i < before.length; i++) {
+            int cell = watchedCells.get(i);
+            before[i] = isConflict(cell / size, cell % size);
+        }
+        for (int line : dirtyLines) {
+            reviseLine(line < size, line < size ? line : line - size);
+        }
+        for (int i = 0; i < before.length; i++) {
+            int cell = watchedCells.get(i);
+            if (isConflict(cell / size, cell % size) != before[i]) changedCells.add(cell);
+        }
+    }
+
+    /**
+     * Cases des lignes et colonnes révisées (une case à l'intersection d'une ligne et d'une colonne révisées
+     * n'est prise qu'une fois), la case modifiée exceptée.
+     */
+    private void collectWatchedCells(int modified) {
+        watchedCells.clear();
+        for (int line : dirtyLines) {
+            for (int k = 0; k < size; k++) {
+                int cell;
+                if (line < size) {
+                    cell = line * size + k;
+                } else {
+                    if (dirty[k]) continue; // Déjà prise avec sa ligne
+                    cell = k * size + (line - size);
+                }
+                if (cell != modified) watchedCells.add(cell);
+            }
+        }
+    }
+
+    /**
+     * @return true si la case viole au moins une règle (dans sa ligne ou sa colonne).
+     */
+    public boolean isConflict(int r, int c) {
+        int val = values[r][c];
+        if (val == BinairoGrid.EMPTY) return false;
+        return rowTriple[r][c] || colTriple[c][r]
+                || rowExcess[r] == val || colExcess[c] == val
+                || rowDuplicate[r] || colDuplicate[c];
+    }
+
+    /**
+     * @return La description de la première règle violée par la case, ou null.
+     */
+    public String describeConflict(int r, int c) {
+        int val = values[r][c];
+        if (val == BinairoGrid.EMPTY) return null;
+        if (rowTriple[r][c] || colTriple[c][r]) {
+            return "R1 (Triple): Maximum deux chiffres identiques côte à côte.";
+        }
+        if (rowExcess[r] == val) return "R2 (Équilibre Ligne): Le nombre de " + val + " dépasse N/2.";
+        if (colExcess[c] == val) return "R2 (Équilibre Colonne): Le nombre de " + val + " dépasse N/2.";
+        if (rowDuplicate[r]) return "R3 (Unicité Ligne): La ligne est identique à une autre ligne complétée.";
+        if (colDuplicate[c]) return "R3 (Unicité Colonne): La colonne est identique à une autre colonne complétée.";
+        return null;
+    }
+
+    /**
+     * Met à jour l'index des lignes complètes ; les lignes partageant l'ancien ou le nouveau contenu sont révisées.
+     */
+    private void updateFullLines(boolean isRow, int index, String oldKey, String newKey) {
+        Map<String, List<Integer>> full = isRow ? fullRows : fullCols;
+        int offset = isRow ? 0 : size;
+        if (oldKey != null) {
+            List<Integer> same = full.get(oldKey);
+            same.remove(Integer.valueOf(index));
+            if (same.isEmpty()) full.remove(oldKey);
+            for (int other : same) markDirty(offset + other);
+        }
+        if (newKey != null) {
+            List<Integer> same = full.computeIfAbsent(newKey, k -> new ArrayList<>());
+            same.add(index);
+            for (int other : same) markDirty(offset + other);
+        }
+    }
+
+    private void reviseLine(boolean isRow, int index) {
+        boolean[] triple = isRow ? rowTriple[index] : colTriple[index];
+        int[] counts = isRow ? rowCounts[index] : colCounts[index];
+        int violations = 0;
+
+        // R1
+        boolean anyTriple = false;
+        for (int k = 0; k < size; k++) triple[k] = false;
+        for (int k = 0; k + 2 < size; k++) {
+            int v = get(isRow, index, k);
+            if (v != BinairoGrid.EMPTY && v == get(isRow, index, k + 1) && v == get(isRow, index, k + 2)) {
+                triple[k] = triple[k + 1] = triple[k + 2] = true;
+                anyTriple = true;
+            }
+        }
+        if (anyTriple) violations++;
+
+        // R2
+        int excess = BinairoGrid.EMPTY;
+        if (counts[BinairoGrid.ZERO] > maxPerValue) excess = BinairoGrid.ZERO;
+        else if (counts[BinairoGrid.ONE] > maxPerValue) excess = BinairoGrid.ONE;
+        if (excess != BinairoGrid.EMPTY) violations++;
+
+        // R3
+        String key = lineKey(isRow, index);
+        Map<String, List<Integer>> full = isRow ? fullRows : fullCols;
+        boolean duplicate = key != null && full.get(key).size() > 1;
+        if (duplicate) violations++;
+
+        if (isRow) {
+            rowExcess[index] = excess;
+            rowDuplicate[index] = duplicate;
+        } else {
+            colExcess[index] = excess;
+            colDuplicate[index] = duplicate;
+        }
+        int line = isRow ? index : size + index;
+        if (lineViolations[line] == 0 && violations > 0) violatingLines++;
+        if (lineViolations[line] > 0 && violations == 0) violatingLines--;
+        lineViolations[line] = violations;
+    }
+
+    private int get(boolean isRow, int index, int k) {
+        return isRow ? values[index][k] : values[k][index];
+    }
+
+    /**
+     * @return Le contenu d'une ligne complète sous forme de chaîne, ou null si elle n'est pas complète.
+     */
+    private String lineKey(boolean isRow, int index) {
+        int[] counts = isRow ? rowCounts[index] : colCounts[index];
+        if (counts[BinairoGrid.ZERO] + counts[BinairoGrid.ONE] != size) return null;
+        char[] chars = new char[size];
+        for (int k = 0; k < size; k++) chars[k] = (char) ('0' + get(isRow, index, k));
+        return new String(chars);
+    }
+
+    private void markDirty(int line) {
+        if (dirty[line]) return;
+        dirty[line] = true;
+        dirtyLines.add(line);
+    }
+
+    private void clearDirtyLines() {
+        for (int line : dirtyLines) dirty[line] = false;
+        dirtyLines.clear();
+    }
+}
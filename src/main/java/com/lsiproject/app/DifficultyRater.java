@@ -0,0 +1,284 @@
+package com.lsiproject.app;
+
+/**
+ * Moteur d'évaluation de la difficulté d'une grille.
+ * La grille est résolue comme le ferait un joueur : à chaque étape, on applique la technique la plus simple
+ * qui permet de placer au moins une case (paires, sandwichs, équilibre, motifs de ligne, unicité, anticipation).
+ * La note dépend de la technique la plus difficile nécessaire et du nombre d'étapes.
+ * Les lignes sont manipulées sous forme de masques de bits (taille <= 64).
+ */
+public class DifficultyRater {
+
+    // Au-delà, l'énumération des motifs de ligne devient trop coûteuse : ces techniques sont ignorées.
+    public static final int MAX_PATTERN_SIZE = 20;
+
+    private static final DifficultyRating.Level[] DEDUCTION_LEVELS = {
+            DifficultyRating.Level.PAIRS,
+            DifficultyRating.Level.SANDWICH,
+            DifficultyRating.Level.BALANCE,
+            DifficultyRating.Level.LINE_PATTERNS,
+            DifficultyRating.Level.UNIQUENESS,
+            DifficultyRating.Level.LOOKAHEAD
+    };
+
+    private static final int CONTRADICTION = -1;
+
+    /**
+     * Évalue la difficulté de la grille.
+     * Si la grille ne peut pas être terminée par déduction, la note est GUESS et isSolved() est faux ;
+     * si une contradiction apparaît (grille sans solution), le statut est INVALID.
+     */
+    public DifficultyRating rate(BinairoGrid grid) {
+        Board board = Board.from(grid);
+        int[] cellsPerLevel = new int[DifficultyRating.Level.values().length];
+        DifficultyRating.Level hardest = null;
+        int steps = 0;
+
+        if (!board.isConsistent()) {
+            return new DifficultyRating(null, 0, cellsPerLevel, DifficultyRating.Status.INVALID);
+        }
+
+        while (!board.isFull()) {
+            DifficultyRating.Level used = null;
+            for (DifficultyRating.Level level : DEDUCTION_LEVELS) {
+                int placed = apply(board, level);
+                if (placed == CONTRADICTION || !board.isConsistent()) {
+                    return new DifficultyRating(hardest, steps, cellsPerLevel, DifficultyRating.Status.INVALID);
+                }
+                if (placed > 0) {
+                    used = level;
+                    cellsPerLevel[level.ordinal()] += placed;
+                    break;
+                }
+            }
+            if (used == null) {
+                // Aucune technique ne progresse : il faudrait deviner
+                return new DifficultyRating(DifficultyRating.Level.GUESS, steps, cellsPerLevel, DifficultyRating.Status.NEEDS_GUESS);
+            }
+            steps++;
+            if (hardest == null || used.ordinal() > hardest.ordinal()) hardest = used;
+        }
+        return new DifficultyRating(hardest, steps, cellsPerLevel, DifficultyRating.Status.SOLVED);
+    }
+
+    /**
+     * Applique une technique sur toutes les lignes et colonnes (à partir du même instantané).
+     * @return Le nombre de cases placées, ou CONTRADICTION.
+     */
+    private int apply(Board board, DifficultyRating.Level level) {
+        if (level == DifficultyRating.Level.LOOKAHEAD) {
+            return lookahead(board);
+        }
+        int size = board.size;
+        long[] rowForceZero = new long[size];
+        long[] rowForceOne = new long[size];
+        long[] colForceZero = new long[size];
+        long[] colForceOne = new long[size];
+        long[] forced = new long[2];
+
+        for (int i = 0; i < size; i++) {
+            if (!deduce(board, level, true, i, forced)) return CONTRADICTION;
+            rowForceZero[i] = forced[0];
+            rowForceOne[i] = forced[1];
+            if (!deduce(board, level, false, i, forced)) return CONTRADICTION;
+            colForceZero[i] = forced[0];
+            colForceOne[i] = forced[1];
+        }
+
+        int placed = 0;
+        for (int i = 0; i < size; i++) {
+            int p1 = placeLine(board, true, i, rowForceZero[i], BinairoGrid.ZERO);
+            int p2 = placeLine(board, true, i, rowForceOne[i], BinairoGrid.ONE);
+            int p3 = placeLine(board, false, i, colForceZero[i], BinairoGrid.ZERO);
+            int p4 = placeLine(board, false, i, colForceOne[i], BinairoGrid.ONE);
+            if (p1 < 0 || p2 < 0 || p3 < 0 || p4 < 0) return CONTRADICTION;
+            placed += p1 + p2 + p3 + p4;
+        }
+        return placed;
+    }
+
+    /**
+     * Calcule les cases forcées d'une ligne par une technique donnée.
+     * @param forced Sortie : [cases forcées à 0, cases forcées à 1].
+     * @return false si la ligne est contradictoire.
+     */
+    private boolean deduce(Board board, DifficultyRating.Level level, boolean isRow, int index, long[] forced) {
+        long ones = isRow ? board.rowOnes[index] : board.colOnes[index];
+        long zeros = isRow ? board.rowZeros[index] : board.colZeros[index];
+        long empty = board.fullMask & ~(ones | zeros);
+        forced[0] = 0;
+        forced[1] = 0;
+        if (empty == 0) return true;
+
+        switch (level) {
+            case PAIRS:
+                forced[0] = BitboardState.nextToPair(ones) & empty;
+                forced[1] = BitboardState.nextToPair(zeros) & empty;
+                break;
+            case SANDWICH:
+                forced[0] = BitboardState.sandwiched(ones) & empty;
+                forced[1] = BitboardState.sandwiched(zeros) & empty;
+                break;
+            case BALANCE:
+                if (Long.bitCount(ones) == board.maxPerValue) forced[0] = empty;
+                if (Long.bitCount(zeros) == board.maxPerValue) forced[1] = empty;
+                break;
+            case LINE_PATTERNS:
+            case UNIQUENESS:
+                if (board.size > MAX_PATTERN_SIZE) break;
+                long common = board.fullMask;
+                long any = 0;
+                boolean found = false;
+                for (long pattern : LinePatterns.forSize(board.size)) {
+                    if (!LinePatterns.isCompatible(pattern, ones, zeros)) continue;
+                    if (level == DifficultyRating.Level.UNIQUENESS && board.isOtherFullLine(isRow, index, pattern)) continue;
+                    common &= pattern;
+                    any |= pattern;
+                    found = true;
+                }
+                if (!found) return false;
+                forced[1] = common & empty;
+                forced[0] = ~any & empty;
+                break;
+            default:
+                break;
+        }
+        return (forced[0] & forced[1]) == 0;
+    }
+
+    private int placeLine(Board board, boolean isRow, int index, long bits, int val) {
+        int placed = 0;
+        while (bits != 0) {
+            int k = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            int result = isRow ? board.set(index, k, val) : board.set(k, index, val);
+            if (result < 0) return CONTRADICTION;
+            placed += result;
+        }
+        return placed;
+    }
+
+    /**
+     * Anticipation : suppose une valeur puis propage (paires, sandwichs, équilibre, unicité) ;
+     * si une contradiction apparaît, la case prend l'autre valeur.
+     * Les hypothèses sont testées sur un BitboardState et annulées par sa trace, sans copie de grille.
+     * @return 1 si une case a été déduite, 0 sinon.
+     */
+    private int lookahead(Board board) {
+        BitboardState state = new BitboardState(board.size);
+        for (int r = 0; r < board.size; r++) {
+            for (int c = 0; c < board.size; c++) {
+                int val = board.get(r, c);
+                if (val != BinairoGrid.EMPTY) state.assign(r, c, val);
+            }
+        }
+        if (!state.propagate()) return CONTRADICTION;
+        int base = state.mark();
+
+        for (int r = 0; r < board.size; r++) {
+            for (int c = 0; c < board.size; c++) {
+                if (state.getValue(r, c) != BinairoGrid.EMPTY) continue;
+                for (int val = BinairoGrid.ZERO; val <= BinairoGrid.ONE; val++) {
+                    state.assign(r, c, val);
+                    boolean consistent = state.propagate();
+                    state.undo(base);
+                    if (!consistent) {
+                        return board.set(r, c, 1 - val) < 0 ? CONTRADICTION : 1;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Grille sous forme de masques de bits par ligne et par colonne.
+     */
+    private static class Board {
+        final int size;
+        final long fullMask;
+        final int maxPerValue;
+        final long[] rowOnes;
+        final long[] rowZeros;
+        final long[] colOnes;
+        final long[] colZeros;
+        int filled;
+
+        Board(int size) {
+            if (size < 2 || size > BitboardState.MAX_SIZE) {
+                throw new IllegalArgumentException("Taille non supportée par l'évaluation : " + size);
+            }
+            this.size = size;
+            this.fullMask = size == 64 ? -1L : (1L << size) - 1;
+            this.maxPerValue = (size + 1) / 2;
+            this.rowOnes = new long[size];
+            this.rowZeros = new long[size];
+            this.colOnes = new long[size];
+            this.colZeros = new long[size];
+        }
+
+        static Board from(BinairoGrid grid) {
+            Board board = new Board(grid.getSize());
+            for (int r = 0; r < board.size; r++) {
+                for (int c = 0; c < board.size; c++) {
+                    int val = grid.getValue(r, c);
+                    if (val != BinairoGrid.EMPTY) board.set(r, c, val);
+                }
+            }
+            return board;
+        }
+
+        boolean isFull() { return filled == size * size; }
+
+        int get(int r, int c) {
+            if ((rowOnes[r] & (1L << c)) != 0) return BinairoGrid.ONE;
+            if ((rowZeros[r] & (1L << c)) != 0) return BinairoGrid.ZERO;
+            return BinairoGrid.EMPTY;
+        }
+
+        /**
+         * @return 1 si la case a été placée, 0 si elle avait déjà cette valeur, -1 si elle avait l'autre.
+         */
+        int set(int r, int c, int val) {
+            int current = get(r, c);
+            if (current != BinairoGrid.EMPTY) return current == val ? 0 : -1;
+            if (val == BinairoGrid.ONE) {
+                rowOnes[r] |= 1L << c;
+                colOnes[c] |= 1L << r;
+            } else {
+                rowZeros[r] |= 1L << c;
+                colZeros[c] |= 1L << r;
+            }
+            filled++;
+            return 1;
+        }
+
+        boolean isOtherFullLine(boolean isRow, int index, long pattern) {
+            long[] ones = isRow ? rowOnes : colOnes;
+            long[] zeros = isRow ? rowZeros : colZeros;
+            for (int i = 0; i < size; i++) {
+                if (i != index && (ones[i] | zeros[i]) == fullMask && ones[i] == pattern) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Vérifie R1, R2 (limite N/2) et R3 (lignes complètes distinctes) sur toute la grille.
+         */
+        boolean isConsistent() {
+            return linesConsistent(rowOnes, rowZeros) && linesConsistent(colOnes, colZeros);
+        }
+
+        private boolean linesConsistent(long[] ones, long[] zeros) {
+            for (int i = 0; i < size; i++) {
+                if (BitboardState.hasTriple(ones[i]) || BitboardState.hasTriple(zeros[i])) return false;
+                if (Long.bitCount(ones[i]) > maxPerValue || Long.bitCount(zeros[i]) > maxPerValue) return false;
+                if ((ones[i] | zeros[i]) != fullMask) continue;
+                for (int j = i + 1; j < size; j++) {
+                    if ((ones[j] | zeros[j]) == fullMask && ones[j] == ones[i]) return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.lsiproject.app;
+
+/**
+ * Résultat de l'évaluation de difficulté d'une grille : technique la plus difficile nécessaire,
+ * nombre d'étapes de déduction et score pondéré.
+ */
+public class DifficultyRating {
+
+    /**
+     * Hiérarchie des techniques de déduction, de la plus simple à la plus difficile.
+     */
+    public enum Level {
+        PAIRS("Paires", 1),
+        SANDWICH("Sandwichs", 1),
+        BALANCE("Complétion de l'équilibre", 2),
+        LINE_PATTERNS("Motifs de ligne", 4),
+        UNIQUENESS("Unicité des lignes", 6),
+        LOOKAHEAD("Anticipation", 10),
+        GUESS("Essai-erreur", 25);
+
+        private final String label;
+        private final int weight;
+
+        Level(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        public String getLabel() { return label; }
+        public int getWeight() { return weight; }
+    }
+
+    /**
+     * Issue de l'évaluation.
+     */
+    public enum Status {
+        SOLVED,      // Grille entièrement résolue par déduction
+        NEEDS_GUESS, // Aucune technique ne progresse : il faudrait deviner (hardestLevel = GUESS)
+        INVALID      // Grille contradictoire : aucune solution, la note n'a pas de sens
+    }
+
+    private final Level hardestLevel;
+    private final int steps;
+    private final int[] cellsPerLevel;
+    private final Status status;
+
+    public DifficultyRating(Level hardestLevel, int steps, int[] cellsPerLevel, Status status) {
+        this.hardestLevel = hardestLevel;
+        this.steps = steps;
+        this.cellsPerLevel = cellsPerLevel;
+        this.status = status;
+    }
+
+    public Level getHardestLevel() { return hardestLevel; }
+    public int getSteps() { return steps; }
+    public Status getStatus() { return status; }
+
+    /**
+     * @return true si la grille a été entièrement résolue par déduction (sans essai-erreur).
+     */
+    public boolean isSolved() { return status == Status.SOLVED; }
+
+    /**
+     * @return true si une contradiction est apparue : la grille n'a pas de solution.
+     */
+    public boolean isInvalid() { return status == Status.INVALID; }
+
+    public int getCellsSolvedBy(Level level) { return cellsPerLevel[level.ordinal()]; }
+
+    /**
+     * Score : somme des cases déduites pondérées par la difficulté de leur technique.
+     */
+    public int getScore() {
+        int score = 0;
+        for (Level level : Level.values()) {
+            score += cellsPerLevel[level.ordinal()] * level.getWeight();
+        }
+        return score;
+    }
+
+    /**
+     * Catégorie de difficulté affichable, déterminée par la technique la plus difficile.
+     */
+    public String getCategory() {
+        if (status == Status.INVALID) return "Invalide";
+        if (hardestLevel == null) return "Triviale";
+        switch (hardestLevel) {
+            case PAIRS:
+            case SANDWICH:
+                return "Facile";
+            case BALANCE:
+                return "Moyenne";
+            case LINE_PATTERNS:
+            case UNIQUENESS:
+                return "Difficile";
+            case LOOKAHEAD:
+                return "Expert";
+            default:
+                return "Extrême";
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (status == Status.INVALID) return getCategory() + " (contradiction après " + steps + " étapes)";
+        return getCategory() + " (technique max : " + (hardestLevel == null ? "aucune" : hardestLevel.getLabel())
+                + ", étapes : " + steps + ", score : " + getScore() + ")";
+    }
+}
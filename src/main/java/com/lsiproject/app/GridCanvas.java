@@ -0,0 +1,217 @@
+package com.lsiproject.app;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+
+/**
+ * Composant de dessin de la grille : un seul composant Swing, quelle que soit la taille.
+ * Seules les cases visibles (zone de découpe) sont dessinées ; un coup ne redessine que les cases modifiées.
+ * Les clics sont convertis en (ligne, colonne) par calcul. Zoom : Ctrl + molette ou setCellSize().
+ * Prévu pour être placé dans un JScrollPane (grilles jusqu'à 256x256).
+ */
+public class GridCanvas extends JComponent implements Scrollable {
+
+    /**
+     * Reçoit les clics sur les cases (clic droit : rightButton = true).
+     */
+    public interface CellListener {
+        void cellClicked(int r, int c, boolean rightButton);
+    }
+
+    public static final int MIN_CELL_SIZE = 4;
+    public static final int MAX_CELL_SIZE = 80;
+    // En dessous de cette taille, les valeurs sont représentées par la seule couleur de la case
+    private static final int MIN_TEXT_CELL_SIZE = 10;
+
+    private static final Color ZERO_COLOR = new Color(220, 240, 255);
+    private static final Color ONE_COLOR = new Color(255, 230, 230);
+    private static final Color CONFLICT_COLOR = new Color(255, 120, 120);
+    private static final Color EMPTY_EDITABLE_COLOR = Color.LIGHT_GRAY;
+    private static final Color EMPTY_COLOR = Color.WHITE;
+    private static final Color LINE_COLOR = Color.GRAY;
+    private static final Color HIGHLIGHT_COLOR = new Color(255, 160, 0);
+
+    private BinairoGrid grid;
+    private boolean[][] clues;              // null : toutes les cases remplies sont des indices
+    private ConflictTracker conflicts;      // null : aucun conflit affiché
+    private boolean interactive;
+    private CellListener listener;
+    private int highlightRow = -1;          // Case mise en évidence (-1 : aucune)
+    private int highlightCol = -1;
+
+    private int cellSize = 40;
+    // Polices recalculées uniquement quand la taille des cases change
+    private Font clueFont;
+    private Font playerFont;
+
+    public GridCanvas() {
+        updateFonts();
+        setOpaque(true);
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (!interactive || listener == null || grid == null) return;
+                int r = e.getY() / cellSize;
+                int c = e.getX() / cellSize;
+                if (r < 0 || c < 0 || r >= grid.getSize() || c >= grid.getSize()) return;
+                listener.cellClicked(r, c, SwingUtilities.isRightMouseButton(e));
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (!e.isControlDown()) {
+                    // Défilement normal : transmis au JScrollPane parent
+                    Container parent = SwingUtilities.getAncestorOfClass(JScrollPane.class, GridCanvas.this);
+                    if (parent != null) parent.dispatchEvent(SwingUtilities.convertMouseEvent(GridCanvas.this, e, parent));
+                    return;
+                }
+                setCellSize(cellSize - e.getWheelRotation() * Math.max(1, cellSize / 8));
+            }
+        };
+        addMouseListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    public void setCellListener(CellListener listener) { this.listener = listener; }
+
+    /**
+     * Remplace la grille affichée (un seul repaint ; revalidate seulement si la taille change).
+     */
+    public void setGrid(BinairoGrid grid, boolean[][] clues, ConflictTracker conflicts, boolean interactive) {
+        boolean resized = this.grid == null || this.grid.getSize() != grid.getSize();
+        this.grid = grid;
+        this.clues = clues;
+        this.conflicts = conflicts;
+        this.interactive = interactive;
+        if (resized) revalidate();
+        repaint();
+    }
+
+    public BinairoGrid getGrid() { return grid; }
+
+    public int getCellSize() { return cellSize; }
+
+    public void setCellSize(int size) {
+        int clamped = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, size));
+        if (clamped == cellSize) return;
+        cellSize = clamped;
+        updateFonts();
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Taille de case adaptée à une zone d'affichage (la grille entière visible si possible).
+     */
+    public void fitTo(int width, int height) {
+        if (grid == null || width <= 0 || height <= 0) return;
+        setCellSize(Math.min(width, height) / grid.getSize());
+    }
+
+    /**
+     * Met une case en évidence (r = -1 pour retirer la mise en évidence).
+     */
+    public void setHighlight(int r, int c) {
+        if (highlightRow >= 0) repaintCell(highlightRow, highlightCol);
+        highlightRow = r;
+        highlightCol = c;
+        if (r >= 0) repaintCell(r, c);
+    }
+
+    public void repaintCell(int r, int c) {
+        repaint(c * cellSize, r * cellSize, cellSize, cellSize);
+    }
+
+    private void updateFonts() {
+        int fontSize = Math.max(6, cellSize / 2);
+        clueFont = new Font("Arial", Font.BOLD, fontSize);
+        playerFont = new Font("Arial", Font.PLAIN, fontSize);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (grid == null) return;
+
+        // Seules les cases intersectant la zone de découpe sont dessinées
+        int size = grid.getSize();
+        int firstRow = Math.max(0, clip.y / cellSize);
+        int lastRow = Math.min(size - 1, (clip.y + clip.height - 1) / cellSize);
+        int firstCol = Math.max(0, clip.x / cellSize);
+        int lastCol = Math.min(size - 1, (clip.x + clip.width - 1) / cellSize);
+
+        boolean drawText = cellSize >= MIN_TEXT_CELL_SIZE;
+        if (drawText && g instanceof Graphics2D) {
+            ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        }
+        FontMetrics clueMetrics = g.getFontMetrics(clueFont);
+        FontMetrics playerMetrics = g.getFontMetrics(playerFont);
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                int x = c * cellSize;
+                int y = r * cellSize;
+                int val = grid.getValue(r, c);
+                g.setColor(cellColor(r, c, val));
+                g.fillRect(x, y, cellSize, cellSize);
+                if (cellSize > MIN_CELL_SIZE) {
+                    g.setColor(LINE_COLOR);
+                    g.drawRect(x, y, cellSize - 1, cellSize - 1);
+                }
+                if (r == highlightRow && c == highlightCol) {
+                    g.setColor(HIGHLIGHT_COLOR);
+                    int thickness = Math.max(1, cellSize / 10);
+                    for (int k = 0; k < thickness; k++) g.drawRect(x + k, y + k, cellSize - 1 - 2 * k, cellSize - 1 - 2 * k);
+                }
+                if (drawText && val != BinairoGrid.EMPTY) {
+                    boolean clue = clues == null || clues[r][c];
+                    FontMetrics metrics = clue ? clueMetrics : playerMetrics;
+                    String text = val == BinairoGrid.ZERO ? "0" : "1";
+                    g.setFont(clue ? clueFont : playerFont);
+                    g.setColor(Color.BLACK);
+                    g.drawString(text, x + (cellSize - metrics.stringWidth(text)) / 2,
+                            y + (cellSize - metrics.getHeight()) / 2 + metrics.getAscent());
+                }
+            }
+        }
+    }
+
+    private Color cellColor(int r, int c, int val) {
+        if (conflicts != null && conflicts.isConflict(r, c)) return CONFLICT_COLOR;
+        if (val == BinairoGrid.ZERO) return ZERO_COLOR;
+        if (val == BinairoGrid.ONE) return ONE_COLOR;
+        return interactive ? EMPTY_EDITABLE_COLOR : EMPTY_COLOR;
+    }
+
+    // --- Taille et défilement ---
+
+    @Override
+    public Dimension getPreferredSize() {
+        int size = grid == null ? 0 : grid.getSize();
+        return new Dimension(size * cellSize, size * cellSize);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() { return getPreferredSize(); }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) { return cellSize; }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        int extent = orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        return Math.max(cellSize, extent - cellSize);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() { return false; }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() { return false; }
+}
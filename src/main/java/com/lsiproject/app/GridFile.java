@@ -0,0 +1,161 @@
+package com.lsiproject.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Format binaire des sauvegardes (.bnr), lu et écrit en un seul bloc par NIO.
+ *
+ * Structure (gros-boutiste) :
+ *   magic "BNRO" (4 octets) | version (1) | options (1) | taille N (2)
+ *   | cases : 2 bits par case, ligne par ligne (0 vide, 1 zéro, 2 un)
+ *   | domaines (si l'option DOMAINS est présente) : 2 bits par case (bit 0 : 0 possible, bit 1 : 1 possible)
+ *   | CRC32 de tout ce qui précède (4 octets).
+ * Une grille 10x10 occupe 37 octets (62 avec les domaines), contre plusieurs Ko en sérialisation Java.
+ */
+public final class GridFile {
+
+    public static final String EXTENSION = ".bnr";
+    public static final int MAGIC = 0x424E524F; // "BNRO"
+    public static final int VERSION = 1;
+
+    private static final int FLAG_DOMAINS = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_SIZE = 0xFFFF;
+
+    private GridFile() {}
+
+    /**
+     * Écrit la grille ; les domaines ne sont enregistrés que s'ils ont été réduits sur au moins une case vide.
+     */
+    public static void write(Path path, BinairoGrid grid) throws IOException {
+        ByteBuffer buffer = encode(grid, hasReducedDomains(grid));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * @throws IOException Si le fichier est tronqué, d'une autre version ou corrompu (CRC invalide).
+     */
+    public static BinairoGrid read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES + 4 || length > Integer.MAX_VALUE) {
+                throw new IOException("Taille de fichier invalide : " + length);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Lecture jusqu'à remplir le tampon
+            }
+            buffer.flip();
+            return decode(buffer);
+        }
+    }
+
+    static ByteBuffer encode(BinairoGrid grid, boolean withDomains) {
+        int n = grid.getSize();
+        if (n > MAX_SIZE) throw new IllegalArgumentException("Taille non supportée : " + n);
+        int sectionBytes = packedBytes(n);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + sectionBytes * (withDomains ? 2 : 1) + 4)
+                .order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) (withDomains ? FLAG_DOMAINS : 0));
+        buffer.putShort((short) n);
+
+        byte[] cells = new byte[sectionBytes];
+        for (int i = 0; i < n * n; i++) {
+            cells[i >> 2] |= (byte) ((grid.getValue(i / n, i % n) + 1) << ((i & 3) << 1));
+        }
+        buffer.put(cells);
+
+        if (withDomains) {
+            byte[] domains = new byte[sectionBytes];
+            Map<String, Set<Integer>> map = grid.getDomains();
+            for (int i = 0; i < n * n; i++) {
+                Set<Integer> domain = map.get((i / n) + "," + (i % n));
+                int bits = domain == null ? 3
+                        : (domain.contains(BinairoGrid.ZERO) ? 1 : 0) | (domain.contains(BinairoGrid.ONE) ? 2 : 0);
+                domains[i >> 2] |= (byte) (bits << ((i & 3) << 1));
+            }
+            buffer.put(domains);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    static BinairoGrid decode(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        int length = buffer.remaining();
+        if (length < HEADER_BYTES + 4) throw new IOException("Fichier tronqué.");
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), length - 4);
+        int expectedCrc = buffer.getInt(buffer.position() + length - 4);
+        if ((int) crc.getValue() != expectedCrc) throw new IOException("Somme de contrôle invalide : fichier corrompu.");
+
+        if (buffer.getInt() != MAGIC) throw new IOException("Ce n'est pas une sauvegarde Binairo.");
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION) throw new IOException("Version de sauvegarde non supportée : " + version);
+        int flags = buffer.get() & 0xFF;
+        int n = buffer.getShort() & 0xFFFF;
+        boolean withDomains = (flags & FLAG_DOMAINS) != 0;
+        int sectionBytes = packedBytes(n);
+        if (length != HEADER_BYTES + sectionBytes * (withDomains ? 2 : 1) + 4) {
+            throw new IOException("Longueur incohérente avec la taille " + n + ".");
+        }
+
+        byte[] cells = new byte[sectionBytes];
+        buffer.get(cells);
+        BinairoGrid grid = new BinairoGrid(n);
+        for (int i = 0; i < n * n; i++) {
+            int code = cells[i >> 2] >> ((i & 3) << 1) & 3;
+            if (code == 3) throw new IOException("Valeur de case invalide.");
+            grid.setValue(i / n, i % n, code - 1);
+        }
+        grid.resetDomainsForUnassignedCells();
+
+        if (withDomains) {
+            byte[] domains = new byte[sectionBytes];
+            buffer.get(domains);
+            Map<String, Set<Integer>> map = grid.getDomains();
+            for (int i = 0; i < n * n; i++) {
+                if (grid.getValue(i / n, i % n) != BinairoGrid.EMPTY) continue;
+                int bits = domains[i >> 2] >> ((i & 3) << 1) & 3;
+                Set<Integer> domain = map.get((i / n) + "," + (i % n));
+                if ((bits & 1) == 0) domain.remove(BinairoGrid.ZERO);
+                if ((bits & 2) == 0) domain.remove(BinairoGrid.ONE);
+            }
+        }
+        return grid;
+    }
+
+    private static boolean hasReducedDomains(BinairoGrid grid) {
+        int n = grid.getSize();
+        Map<String, Set<Integer>> map = grid.getDomains();
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                if (grid.getValue(r, c) != BinairoGrid.EMPTY) continue;
+                Set<Integer> domain = map.get(r + "," + c);
+                if (domain != null && domain.size() < 2) return true;
+            }
+        }
+        return false;
+    }
+
+    private static int packedBytes(int n) {
+        return (int) (((long) n * n * 2 + 7) / 8);
+    }
+}
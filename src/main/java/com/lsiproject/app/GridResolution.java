@@ -4,15 +4,57 @@ package com.lsiproject.app;
  * Conteneur pour le résultat de la création et de la vérification de la résolubilité.
  */
 public class GridResolution {
+
+    /**
+     * Issue de la recherche : résolue, prouvée sans solution, ou interrompue.
+     */
+    public enum Status { SOLVED, UNSOLVABLE, TIMEOUT, NODE_LIMIT, CANCELLED }
+
     private final BinairoGrid initialGrid;
     private final BinairoGrid solution; // Null si non résoluble
+    private final Status status;
+    private final long solutionCount; // -1 si les solutions n'ont pas été comptées
+    private final boolean countCapped; // true si le comptage s'est arrêté au plafond demandé
 
     public GridResolution(BinairoGrid initialGrid, BinairoGrid solution) {
+        this(initialGrid, solution, solution != null ? Status.SOLVED : Status.UNSOLVABLE);
+    }
+
+    public GridResolution(BinairoGrid initialGrid, BinairoGrid solution, Status status) {
+        this(initialGrid, solution, status, -1, false);
+    }
+
+    public GridResolution(BinairoGrid initialGrid, BinairoGrid solution, Status status, long solutionCount, boolean countCapped) {
         this.initialGrid = initialGrid;
         this.solution = solution;
+        this.status = status;
+        this.solutionCount = solutionCount;
+        this.countCapped = countCapped;
     }
 
     public BinairoGrid getInitialGrid() { return initialGrid; }
     public BinairoGrid getSolution() { return solution; }
+    public Status getStatus() { return status; }
     public boolean isResolvable() { return solution != null; }
+
+    /**
+     * @return Le nombre de solutions trouvées, ou -1 si elles n'ont pas été comptées.
+     * Si isCountCapped() est vrai, il s'agit d'une borne inférieure.
+     */
+    public long getSolutionCount() { return solutionCount; }
+    public boolean isCountCapped() { return countCapped; }
+
+    /**
+     * @return true si le comptage a prouvé que la grille admet exactement une solution.
+     */
+    public boolean isUnique() {
+        return status == Status.SOLVED && solutionCount == 1 && !countCapped;
+    }
+
+    /**
+     * @return true si la recherche a été interrompue (délai, budget ou annulation) avant de conclure.
+     */
+    public boolean isInterrupted() {
+        return status == Status.TIMEOUT || status == Status.NODE_LIMIT || status == Status.CANCELLED;
+    }
 }
@@ -0,0 +1,323 @@
+package com.lsiproject.app;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tirage aléatoire de grilles complètes valides, reproductible à partir d'une graine.
+ * Le tirage est exactement uniforme jusqu'à EXACT_MAX_SIZE (8x8) ; de 10x10 à MAX_SIZE,
+ * il est seulement approché (voir isExact). Les grilles sont construites ligne par ligne à partir des motifs
+ * de ligne valides (LinePatterns).
+ *
+ * - Mode exact (taille <= EXACT_MAX_SIZE) : les couches du comptage relâché (R1, R2 ; voir RowProfileCounter)
+ *   sont mémorisées une fois par taille. Une grille relâchée est tirée uniformément en remontant de la dernière
+ *   ligne à la première, chaque prédécesseur étant choisi proportionnellement à son nombre de chemins.
+ *   Les grilles violant R3 sont rejetées : le tirage est exactement uniforme sur les grilles valides
+ *   (taux d'acceptation d'environ 1/3 en 8x8).
+ * - Mode approché (au-delà) : chaque ligne est choisie parmi les motifs compatibles, avec un poids égal au produit,
+ *   sur les colonnes, du nombre de façons de compléter la colonne (R1, R2 par colonne, colonnes supposées
+ *   indépendantes). Les colonnes restent ainsi toujours complétables ; une impasse ou deux colonnes identiques
+ *   provoquent un nouveau tirage de la grille. Le tirage est proche de l'uniforme, sans garantie exacte.
+ *
+ * Au-delà de MAX_SIZE, le nombre de motifs de ligne et le taux de rejet rendent le tirage trop coûteux.
+ *
+ * Non thread-safe : utiliser un échantillonneur par thread (les tables exactes sont partagées).
+ */
+public class GridSampler {
+
+    public static final int EXACT_MAX_SIZE = 8;
+    public static final int MAX_SIZE = 20;
+
+    // Couches du comptage relâché par taille : clé [compteurs de colonnes, (avant-dernière + 1) | (dernière + 1) << 16]
+    private static final ConcurrentHashMap<Integer, StateCountMap[]> EXACT_LAYERS = new ConcurrentHashMap<>();
+
+    // Nombre de façons de compléter une colonne, indexé par [restant][1 à placer][fin de colonne]
+    private static final ConcurrentHashMap<Integer, double[][][]> COLUMN_WAYS = new ConcurrentHashMap<>();
+
+    // Fin de colonne : aucune valeur, 0 une fois, 0 deux fois, 1 une fois, 1 deux fois
+    private static final int TAIL_NONE = 0;
+    private static final int TAILS = 5;
+
+    private final Random random;
+    private long rejections;
+
+    public GridSampler() {
+        this(new Random());
+    }
+
+    public GridSampler(long seed) {
+        this(new Random(seed));
+    }
+
+    public GridSampler(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * @return true si sample(size) est exactement uniforme sur les grilles valides de cette taille,
+     * false si le tirage n'est qu'approché (taille > EXACT_MAX_SIZE).
+     */
+    public static boolean isExact(int size) {
+        return size <= EXACT_MAX_SIZE;
+    }
+
+    /**
+     * @return Le nombre total de grilles rejetées (R3 ou impasse) depuis la création de l'échantillonneur.
+     */
+    public long getRejections() { return rejections; }
+
+    /**
+     * Tire une grille complète valide (uniformément si isExact(size), sinon de façon approchée).
+     */
+    public BinairoGrid sample(int size) {
+        long[] rows = sampleRows(size);
+        BinairoGrid grid = new BinairoGrid(size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                grid.setValue(r, c, (int) ((rows[r] >>> c) & 1));
+            }
+        }
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+
+    /**
+     * Tire une grille complète valide sous forme de masques de lignes (bit c de la ligne r = valeur de (r, c)).
+     */
+    public long[] sampleRows(int size) {
+        if (size < 2 || size % 2 != 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Taille non supportée par l'échantillonneur : " + size);
+        }
+        long[] patterns = LinePatterns.forSize(size);
+        int[] rows = new int[size];
+        while (true) {
+            boolean built = isExact(size) ? sampleRelaxed(size, patterns, rows) : sampleWeighted(size, patterns, rows);
+            if (built && satisfiesUniqueness(size, patterns, rows)) {
+                long[] result = new long[size];
+                for (int r = 0; r < size; r++) result[r] = patterns[rows[r]];
+                return result;
+            }
+            rejections++;
+        }
+    }
+
+    // --- Mode exact ---
+
+    /**
+     * Tire uniformément une grille relâchée (R1, R2) en remontant les couches du comptage.
+     */
+    private boolean sampleRelaxed(int size, long[] patterns, int[] rows) {
+        StateCountMap[] layers = EXACT_LAYERS.computeIfAbsent(size, GridSampler::buildLayers);
+        long[] spread = RowProfileCounter.spreadPatterns(patterns, size);
+        long full = (1L << size) - 1;
+
+        // Dernière couche : état final tiré proportionnellement à son nombre de chemins
+        StateCountMap last = layers[size];
+        long target = nextLong(total(last));
+        int chosen = -1;
+        for (int slot = 0; slot < last.capacity() && chosen < 0; slot++) {
+            if (!last.isUsed(slot)) continue;
+            target -= last.countAt(slot);
+            if (target < 0) chosen = slot;
+        }
+        long counts = last.keyAt(chosen, 0);
+        long tail = last.keyAt(chosen, 1);
+        int prev = (int) (tail & 0xFFFF) - 1;
+        int lastRow = (int) ((tail >>> 16) & 0xFFFF) - 1;
+
+        long[] key = new long[2];
+        long[] weights = new long[patterns.length];
+        for (int depth = size; depth >= 2; depth--) {
+            rows[depth - 1] = lastRow;
+            counts -= spread[lastRow];
+            if (depth == 2) {
+                rows[0] = prev;
+                break;
+            }
+            // Prédécesseurs : (compteurs, pp, prev) pour toute ligne pp ne créant pas de triple
+            StateCountMap layer = layers[depth - 1];
+            long sum = 0;
+            for (int pp = 0; pp < patterns.length; pp++) {
+                weights[pp] = 0;
+                if (RowProfileCounter.createsColumnTriple(patterns, pp, prev, patterns[lastRow], full)) continue;
+                key[0] = counts;
+                key[1] = (pp + 1) | ((long) (prev + 1) << 16);
+                weights[pp] = layer.get(key);
+                sum += weights[pp];
+            }
+            int pp = pick(weights, patterns.length, nextLong(sum));
+            lastRow = prev;
+            prev = pp;
+        }
+        return true;
+    }
+
+    private static StateCountMap[] buildLayers(int size) {
+        long[] patterns = LinePatterns.forSize(size);
+        long[] spread = RowProfileCounter.spreadPatterns(patterns, size);
+        long nibbleOnes = RowProfileCounter.spreadMask(size);
+        int maxPerValue = size / 2;
+        long full = (1L << size) - 1;
+
+        StateCountMap[] layers = new StateCountMap[size + 1];
+        long[] key = new long[2];
+        layers[0] = new StateCountMap(2, 1);
+        layers[0].add(key, 1);
+        for (int depth = 0; depth < size; depth++) {
+            StateCountMap layer = layers[depth];
+            StateCountMap next = new StateCountMap(2, layer.size() * 2);
+            for (int slot = 0; slot < layer.capacity(); slot++) {
+                if (!layer.isUsed(slot)) continue;
+                long count = layer.countAt(slot);
+                long columnCounts = layer.keyAt(slot, 0);
+                long tail = layer.keyAt(slot, 1);
+                int prev = (int) (tail & 0xFFFF) - 1;
+                int last = (int) ((tail >>> 16) & 0xFFFF) - 1;
+                for (int idx = 0; idx < patterns.length; idx++) {
+                    if (RowProfileCounter.createsColumnTriple(patterns, prev, last, patterns[idx], full)) continue;
+                    long newCounts = columnCounts + spread[idx];
+                    if (!RowProfileCounter.columnCountsValid(newCounts, depth + 1, maxPerValue, nibbleOnes)) continue;
+                    key[0] = newCounts;
+                    key[1] = (last + 1) | ((long) (idx + 1) << 16);
+                    next.add(key, count);
+                }
+            }
+            layers[depth + 1] = next;
+        }
+        return layers;
+    }
+
+    private static long total(StateCountMap layer) {
+        long sum = 0;
+        for (int slot = 0; slot < layer.capacity(); slot++) {
+            if (layer.isUsed(slot)) sum += layer.countAt(slot);
+        }
+        return sum;
+    }
+
+    private static int pick(long[] weights, int length, long target) {
+        for (int i = 0; i < length; i++) {
+            target -= weights[i];
+            if (target < 0) return i;
+        }
+        throw new IllegalStateException("Tirage pondéré hors bornes");
+    }
+
+    private long nextLong(long bound) {
+        return random.nextLong(bound);
+    }
+
+    // --- Mode approché ---
+
+    /**
+     * Construit une grille ligne par ligne, chaque motif étant pondéré par le nombre estimé de complétions.
+     * @return false en cas d'impasse (aucun motif ne laisse toutes les colonnes complétables).
+     */
+    private boolean sampleWeighted(int size, long[] patterns, int[] rows) {
+        double[][][] ways = COLUMN_WAYS.computeIfAbsent(size, GridSampler::buildColumnWays);
+        int half = size / 2;
+        int[] ones = new int[size];
+        int[] tails = new int[size];
+        double[] factorZero = new double[size];
+        double[] factorOne = new double[size];
+        double[] weights = new double[patterns.length];
+        boolean[] used = new boolean[patterns.length];
+
+        for (int depth = 0; depth < size; depth++) {
+            int remaining = size - depth - 1;
+            for (int c = 0; c < size; c++) {
+                factorZero[c] = columnWays(ways, remaining, half - ones[c], nextTail(tails[c], BinairoGrid.ZERO));
+                factorOne[c] = columnWays(ways, remaining, half - ones[c] - 1, nextTail(tails[c], BinairoGrid.ONE));
+            }
+            double sum = 0;
+            for (int idx = 0; idx < patterns.length; idx++) {
+                double weight = 0;
+                if (!used[idx]) {
+                    weight = 1;
+                    long pattern = patterns[idx];
+                    for (int c = 0; c < size && weight > 0; c++) {
+                        weight *= ((pattern >>> c) & 1) != 0 ? factorOne[c] : factorZero[c];
+                    }
+                }
+                weights[idx] = weight;
+                sum += weight;
+            }
+            if (sum == 0) return false;
+
+            double target = random.nextDouble() * sum;
+            int chosen = -1;
+            for (int idx = 0; idx < patterns.length; idx++) {
+                if (weights[idx] == 0) continue;
+                chosen = idx;
+                target -= weights[idx];
+                if (target < 0) break;
+            }
+            rows[depth] = chosen;
+            used[chosen] = true;
+            for (int c = 0; c < size; c++) {
+                int val = (int) ((patterns[chosen] >>> c) & 1);
+                ones[c] += val;
+                tails[c] = nextTail(tails[c], val);
+            }
+        }
+        return true;
+    }
+
+    private static double columnWays(double[][][] ways, int remaining, int onesNeeded, int tail) {
+        if (tail < 0 || onesNeeded < 0 || onesNeeded > remaining) return 0;
+        return ways[remaining][onesNeeded][tail];
+    }
+
+    /**
+     * @return La nouvelle fin de colonne après avoir placé val, ou -1 si cela crée un triple.
+     */
+    private static int nextTail(int tail, int val) {
+        if (tail < 0) return -1;
+        int single = val == BinairoGrid.ZERO ? 1 : 3;
+        if (tail == single) return single + 1;
+        if (tail == single + 1) return -1;
+        return single;
+    }
+
+    private static double[][][] buildColumnWays(int size) {
+        double[][][] ways = new double[size + 1][size + 1][TAILS];
+        for (int tail = TAIL_NONE; tail < TAILS; tail++) ways[0][0][tail] = 1;
+        for (int k = 1; k <= size; k++) {
+            for (int a = 0; a <= k; a++) {
+                for (int tail = TAIL_NONE; tail < TAILS; tail++) {
+                    double total = 0;
+                    int afterZero = nextTail(tail, BinairoGrid.ZERO);
+                    if (afterZero >= 0 && a <= k - 1) total += ways[k - 1][a][afterZero];
+                    int afterOne = nextTail(tail, BinairoGrid.ONE);
+                    if (afterOne >= 0 && a > 0) total += ways[k - 1][a - 1][afterOne];
+                    ways[k][a][tail] = total;
+                }
+            }
+        }
+        return ways;
+    }
+
+    // --- R3 ---
+
+    /**
+     * Vérifie que les lignes sont distinctes deux à deux, ainsi que les colonnes.
+     */
+    private static boolean satisfiesUniqueness(int size, long[] patterns, int[] rows) {
+        long[] columns = new long[size];
+        for (int r = 0; r < size; r++) {
+            for (int q = 0; q < r; q++) {
+                if (rows[q] == rows[r]) return false;
+            }
+            long pattern = patterns[rows[r]];
+            for (int c = 0; c < size; c++) {
+                columns[c] |= ((pattern >>> c) & 1) << r;
+            }
+        }
+        for (int c = 0; c < size; c++) {
+            for (int d = 0; d < c; d++) {
+                if (columns[c] == columns[d]) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package com.lsiproject.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moteur d'aide attaché à une partie manuelle.
+ * Les valeurs placées par le joueur sont propagées au fil des coups dans un BitboardState (R1, R2, R3) :
+ * la propagation ne révise que les lignes touchées par le coup. Les cases déduites mais pas encore jouées
+ * forment l'ensemble des cases forcées, maintenu à jour : une aide coûte O(1), la liste complète O(k).
+ *
+ * Retirer ou modifier une valeur n'est pas monotone : l'état est alors reconstruit à partir des cases du joueur.
+ */
+public class HintEngine {
+
+    private final int size;
+    private final BitboardState state;
+
+    // Cases placées par le joueur (indices compris) et leurs valeurs
+    private final boolean[] placed;
+    private final int[] values;
+
+    // Cases forcées non jouées : forced[0..forcedCount-1], forcedPos[cell] = position dans forced ou -1
+    private final int[] forced;
+    private final int[] forcedPos;
+    private int forcedCount;
+    private int scannedTrail;
+
+    private boolean consistent;
+
+    public HintEngine(BinairoGrid grid) {
+        this.size = grid.getSize();
+        this.state = new BitboardState(size);
+        this.placed = new boolean[size * size];
+        this.values = new int[size * size];
+        this.forced = new int[size * size];
+        this.forcedPos = new int[size * size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int val = grid.getValue(r, c);
+                if (val != BinairoGrid.EMPTY) {
+                    placed[r * size + c] = true;
+                    values[r * size + c] = val;
+                }
+            }
+        }
+        rebuild();
+    }
+
+    public int getSize() { return size; }
+
+    /**
+     * @return false si les valeurs placées mènent à une contradiction (aucune aide n'est alors proposée).
+     */
+    public boolean isConsistent() { return consistent; }
+
+    public int getForcedCount() { return consistent ? forcedCount : 0; }
+
+    /**
+     * Enregistre une valeur placée par le joueur et propage ses conséquences.
+     * @return false si le coup contredit les déductions (la grille n'a alors plus de solution).
+     */
+    public boolean place(int r, int c, int val) {
+        int cell = r * size + c;
+        if (placed[cell]) {
+            if (values[cell] != val) {
+                values[cell] = val;
+                rebuild();
+            }
+            return consistent;
+        }
+        placed[cell] = true;
+        values[cell] = val;
+        if (!consistent) return false;
+
+        int current = state.getValue(r, c);
+        if (current == val) {
+            removeForced(cell); // Le joueur a joué une case déjà déduite
+            return true;
+        }
+        if (current != BinairoGrid.EMPTY) {
+            consistent = false;
+            return false;
+        }
+        state.assign(r, c, val);
+        if (!state.propagate()) {
+            consistent = false;
+            return false;
+        }
+        collectForced();
+        return true;
+    }
+
+    /**
+     * Retire une valeur placée par le joueur (l'état est reconstruit).
+     */
+    public void clear(int r, int c) {
+        int cell = r * size + c;
+        if (!placed[cell]) return;
+        placed[cell] = false;
+        rebuild();
+    }
+
+    /**
+     * @return Une case forcée non jouée, ou null s'il n'y en a pas.
+     */
+    public BinairoAssignment getHint() {
+        if (!consistent || forcedCount == 0) return null;
+        return toAssignment(forced[forcedCount - 1]);
+    }
+
+    /**
+     * @return Toutes les cases forcées non jouées.
+     */
+    public List<BinairoAssignment> getForcedCells() {
+        List<BinairoAssignment> result = new ArrayList<>(forcedCount);
+        if (!consistent) return result;
+        for (int i = 0; i < forcedCount; i++) result.add(toAssignment(forced[i]));
+        return result;
+    }
+
+    /**
+     * @return La valeur déduite pour la case (EMPTY si elle n'est pas encore déterminée).
+     */
+    public int getDeducedValue(int r, int c) {
+        return state.getValue(r, c);
+    }
+
+    private BinairoAssignment toAssignment(int cell) {
+        int r = cell / size;
+        int c = cell % size;
+        return new BinairoAssignment(r, c, state.getValue(r, c));
+    }
+
+    /**
+     * Parcourt les nouvelles entrées de la trace : les cases déduites (non jouées) deviennent forcées.
+     */
+    private void collectForced() {
+        int end = state.getTrailSize();
+        for (int i = scannedTrail; i < end; i++) {
+            int cell = state.getTrailCell(i);
+            if (!placed[cell]) {
+                forcedPos[cell] = forcedCount;
+                forced[forcedCount++] = cell;
+            }
+        }
+        scannedTrail = end;
+    }
+
+    private void removeForced(int cell) {
+        int pos = forcedPos[cell];
+        if (pos < 0) return;
+        int lastCell = forced[--forcedCount];
+        forced[pos] = lastCell;
+        forcedPos[lastCell] = pos;
+        forcedPos[cell] = -1;
+    }
+
+    private void rebuild() {
+        state.reset();
+        forcedCount = 0;
+        scannedTrail = 0;
+        Arrays.fill(forcedPos, -1);
+        consistent = true;
+        for (int cell = 0; cell < placed.length && consistent; cell++) {
+            if (placed[cell] && !state.assign(cell / size, cell % size, values[cell])) consistent = false;
+        }
+        consistent = consistent && state.propagate();
+        if (consistent) collectForced();
+    }
+}
@@ -0,0 +1,71 @@
+package com.lsiproject.app;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Énumération (mise en cache) des lignes valides d'une taille donnée :
+ * sans triple (R1) et équilibrées (R2). Chaque ligne est un masque de bits (bit k : case k vaut 1).
+ */
+public final class LinePatterns {
+
+    private static final ConcurrentHashMap<Integer, long[]> CACHE = new ConcurrentHashMap<>();
+
+    private LinePatterns() {
+    }
+
+    /**
+     * @return Les lignes valides de longueur size, triées par ordre croissant (tableau partagé : ne pas modifier).
+     */
+    public static long[] forSize(int size) {
+        if (size < 1 || size > BitboardState.MAX_SIZE) {
+            throw new IllegalArgumentException("Taille de ligne non supportée : " + size);
+        }
+        return CACHE.computeIfAbsent(size, LinePatterns::generate);
+    }
+
+    /**
+     * @return L'index du motif dans forSize(size), ou -1 s'il n'est pas valide.
+     */
+    public static int indexOf(int size, long pattern) {
+        int index = Arrays.binarySearch(forSize(size), pattern);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @return true si le motif est compatible avec les cases déjà remplies d'une ligne.
+     */
+    public static boolean isCompatible(long pattern, long ones, long zeros) {
+        return (pattern & zeros) == 0 && (ones & ~pattern) == 0;
+    }
+
+    private static long[] generate(int size) {
+        int maxPerValue = (size + 1) / 2;
+        long[] buffer = new long[16];
+        int[] count = {0};
+        buffer = extend(size, maxPerValue, 0, 0L, 0, 0, -1, 0, buffer, count);
+        long[] patterns = Arrays.copyOf(buffer, count[0]);
+        Arrays.sort(patterns);
+        return patterns;
+    }
+
+    // Construction récursive : position k, nombre de 1 et de 0 déjà placés, dernière valeur et longueur de sa série
+    private static long[] extend(int size, int maxPerValue, int k, long bits, int ones, int zeros,
+                                 int lastVal, int run, long[] buffer, int[] count) {
+        if (k == size) {
+            if (count[0] == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            buffer[count[0]++] = bits;
+            return buffer;
+        }
+        for (int val = BinairoGrid.ZERO; val <= BinairoGrid.ONE; val++) {
+            int newRun = val == lastVal ? run + 1 : 1;
+            if (newRun > 2) continue;
+            if (val == BinairoGrid.ONE && ones < maxPerValue) {
+                buffer = extend(size, maxPerValue, k + 1, bits | (1L << k), ones + 1, zeros, val, newRun, buffer, count);
+            } else if (val == BinairoGrid.ZERO && zeros < maxPerValue) {
+                buffer = extend(size, maxPerValue, k + 1, bits, ones, zeros + 1, val, newRun, buffer, count);
+            }
+        }
+        return buffer;
+    }
+}
@@ -1,6 +1,6 @@
 package com.lsiproject.app;
 
-import java.util.Random;
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class Main {
@@ -9,6 +9,12 @@ public class Main {
     private static BinairoSolver solver = new BinairoSolver();
 
     public static void main(String[] args) {
+        // Mode sans interface : génération en masse (voir BulkGenerator)
+        if (args.length > 0 && args[0].equals("--generer")) {
+            BulkGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         System.out.println("Bienvenue dans le jeu Binairo (Takuzu/Binero)");
 
         while (true) {
@@ -120,7 +126,7 @@ public class Main {
         while (true) {
             System.out.println("\nComment créer la grille initiale ?");
             System.out.println("1. Manuelle (entrer les indices)");
-            System.out.println("2. Aléatoire (basique)");
+            System.out.println("2. Aléatoire (solution unique)");
             System.out.print("Votre choix: ");
 
             if (!scanner.hasNextInt()) {
@@ -186,25 +192,15 @@ public class Main {
         return grid;
     }
 
+    /**
+     * Génère une grille aléatoire à solution unique (solution aléatoire puis retrait minimal des indices).
+     */
     private static BinairoGrid createRandomGrid(int size) {
-        BinairoGrid grid = new BinairoGrid(size);
-        Random rand = new Random();
-        int numIndices = size * size / 5;
-
-        for (int i = 0; i < numIndices; i++) {
-            int r = rand.nextInt(size);
-            int c = rand.nextInt(size);
-            int v = rand.nextInt(2); // 0 ou 1
-
-            // Placer la valeur seulement si elle est cohérente localement pour éviter les échecs triviaux
-            if (grid.getValue(r, c) == BinairoGrid.EMPTY) {
-                grid.setValue(r, c, v);
-                // Si la placement viole R1, on l'enlève
-                if (!grid.checkLocalConstraints(r, c)) {
-                    grid.setValue(r, c, BinairoGrid.EMPTY);
-                }
-            }
+        if (size > PuzzleGenerator.MAX_INTERACTIVE_SIZE) {
+            System.out.println("❌ Génération aléatoire limitée aux grilles " + PuzzleGenerator.MAX_INTERACTIVE_SIZE + "x" + PuzzleGenerator.MAX_INTERACTIVE_SIZE + ".");
+            return null;
         }
+        BinairoGrid grid = new PuzzleGenerator().generate(size).getInitialGrid();
         System.out.println("\n--- Grille Aléatoire Générée ---");
         solver.printPosition(grid);
         return grid;
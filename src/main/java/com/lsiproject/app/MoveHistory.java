@@ -0,0 +1,62 @@
+package com.lsiproject.app;
+
+import java.util.Arrays;
+
+/**
+ * Historique défaire/refaire d'une partie manuelle.
+ * Chaque coup est un delta compacté dans un int (case, ancienne valeur, nouvelle valeur) :
+ * défaire ou refaire coûte O(1) en temps, et 4 octets par coup en mémoire, quelle que soit la taille de la grille.
+ *
+ * Codage : case (r * taille + c) sur les bits 4 et suivants, ancienne valeur + 1 sur les bits 2-3,
+ * nouvelle valeur + 1 sur les bits 0-1 (EMPTY, ZERO, ONE deviennent 0, 1, 2).
+ */
+public class MoveHistory {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] deltas = new int[INITIAL_CAPACITY];
+    private int position; // Nombre de coups actifs (deltas[0..position-1])
+    private int limit;    // Fin des coups pouvant être refaits (deltas[position..limit-1])
+
+    public static int pack(int cell, int oldValue, int newValue) {
+        return cell << 4 | (oldValue + 1) << 2 | (newValue + 1);
+    }
+
+    public static int cellOf(int delta) { return delta >>> 4; }
+    public static int oldValueOf(int delta) { return (delta >>> 2 & 3) - 1; }
+    public static int newValueOf(int delta) { return (delta & 3) - 1; }
+
+    /**
+     * Enregistre un coup ; les coups défaits qui pouvaient être refaits sont abandonnés.
+     */
+    public void record(int cell, int oldValue, int newValue) {
+        if (position == deltas.length) deltas = Arrays.copyOf(deltas, deltas.length * 2);
+        deltas[position++] = pack(cell, oldValue, newValue);
+        limit = position;
+    }
+
+    public boolean canUndo() { return position > 0; }
+
+    public boolean canRedo() { return position < limit; }
+
+    /**
+     * @return Le delta du coup défait (sa case reprend oldValueOf(delta)), ou -1 s'il n'y a rien à défaire.
+     */
+    public int undo() {
+        return position > 0 ? deltas[--position] : -1;
+    }
+
+    /**
+     * @return Le delta du coup refait (sa case reprend newValueOf(delta)), ou -1 s'il n'y a rien à refaire.
+     */
+    public int redo() {
+        return position < limit ? deltas[position++] : -1;
+    }
+
+    public int size() { return position; }
+
+    public void clear() {
+        position = 0;
+        limit = 0;
+    }
+}
@@ -0,0 +1,178 @@
+package com.lsiproject.app;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Propagation parallèle des contraintes R1/R2 par lignes puis par colonnes.
+ * Les domaines sont représentés par des masques (bit 0 : ZERO possible, bit 1 : ONE possible).
+ * Pendant une passe, chaque tâche ne lit et n'écrit que sa propre ligne (ou colonne) :
+ * les lignes sont donc révisées en parallèle, puis les colonnes, en alternance jusqu'au point fixe.
+ */
+public class ParallelLinePropagator {
+
+    static final byte CAN_ZERO = 1;
+    static final byte CAN_ONE = 2;
+    static final byte BOTH = CAN_ZERO | CAN_ONE;
+
+    // En dessous de cette taille, le coût de la parallélisation dépasse le gain.
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    private static final int UNCHANGED = 0;
+    private static final int CHANGED = 1;
+    private static final int FAILED = -1;
+
+    private int passCount;
+
+    public int getPassCount() { return passCount; }
+
+    /**
+     * Réduit les domaines des cellules vides de la grille jusqu'au point fixe.
+     * @return false si un domaine devient vide (grille impossible).
+     */
+    public boolean propagate(BinairoGrid grid) {
+        int size = grid.getSize();
+        byte[][] domains = loadDomains(grid);
+        boolean parallel = size >= PARALLEL_THRESHOLD;
+        passCount = 0;
+
+        int rowResult;
+        int colResult;
+        do {
+            passCount++;
+            rowResult = sweep(domains, size, true, parallel);
+            if (rowResult == FAILED) return false;
+            colResult = sweep(domains, size, false, parallel);
+            if (colResult == FAILED) return false;
+        } while (rowResult == CHANGED || colResult == CHANGED);
+
+        storeDomains(grid, domains);
+        return true;
+    }
+
+    /**
+     * Révise toutes les lignes (ou toutes les colonnes) ; chaque ligne est indépendante des autres.
+     */
+    private int sweep(byte[][] domains, int size, boolean isRow, boolean parallel) {
+        IntStream lines = IntStream.range(0, size);
+        if (parallel) lines = lines.parallel();
+        return lines.map(i -> reviseLine(domains, size, i, isRow))
+                .reduce(UNCHANGED, ParallelLinePropagator::combine);
+    }
+
+    private static int combine(int a, int b) {
+        if (a == FAILED || b == FAILED) return FAILED;
+        return a | b;
+    }
+
+    /**
+     * Révise une ligne ou une colonne jusqu'à son point fixe local.
+     * Une valeur est retirée du domaine d'une cellule si elle crée un triple (R1)
+     * avec des cellules fixées, ou si elle dépasse la limite N/2 (R2).
+     */
+    private int reviseLine(byte[][] domains, int size, int index, boolean isRow) {
+        byte[] line = new byte[size];
+        for (int k = 0; k < size; k++) {
+            line[k] = isRow ? domains[index][k] : domains[k][index];
+        }
+
+        int maxPerValue = (size + 1) / 2;
+        boolean changed = false;
+        boolean reduced;
+        do {
+            reduced = false;
+            int count0 = 0;
+            int count1 = 0;
+            for (int k = 0; k < size; k++) {
+                if (line[k] == 0) return FAILED;
+                if (line[k] == CAN_ZERO) count0++;
+                else if (line[k] == CAN_ONE) count1++;
+            }
+            if (count0 > maxPerValue || count1 > maxPerValue) return FAILED;
+
+            for (int k = 0; k < size; k++) {
+                int fixed = fixedValue(line[k]);
+                if (fixed != BinairoGrid.EMPTY) {
+                    // Triple déjà formé par des cellules fixées
+                    if (k >= 2 && fixedValue(line[k - 1]) == fixed && fixedValue(line[k - 2]) == fixed) return FAILED;
+                    continue;
+                }
+                for (int val = BinairoGrid.ZERO; val <= BinairoGrid.ONE; val++) {
+                    byte bit = val == BinairoGrid.ZERO ? CAN_ZERO : CAN_ONE;
+                    if ((line[k] & bit) == 0) continue;
+
+                    int count = val == BinairoGrid.ZERO ? count0 : count1;
+                    if (count + 1 > maxPerValue || createsTriple(line, size, k, val)) {
+                        line[k] &= (byte) ~bit;
+                        reduced = true;
+                        changed = true;
+                        if (line[k] == 0) return FAILED;
+                        // La cellule devient fixée : les compteurs seront recalculés à la prochaine itération.
+                        break;
+                    }
+                }
+            }
+        } while (reduced);
+
+        if (!changed) return UNCHANGED;
+        for (int k = 0; k < size; k++) {
+            if (isRow) domains[index][k] = line[k];
+            else domains[k][index] = line[k];
+        }
+        return CHANGED;
+    }
+
+    private static boolean createsTriple(byte[] line, int size, int k, int val) {
+        if (k >= 2 && fixedValue(line[k - 1]) == val && fixedValue(line[k - 2]) == val) return true;
+        if (k >= 1 && k <= size - 2 && fixedValue(line[k - 1]) == val && fixedValue(line[k + 1]) == val) return true;
+        return k <= size - 3 && fixedValue(line[k + 1]) == val && fixedValue(line[k + 2]) == val;
+    }
+
+    private static int fixedValue(byte mask) {
+        if (mask == CAN_ZERO) return BinairoGrid.ZERO;
+        if (mask == CAN_ONE) return BinairoGrid.ONE;
+        return BinairoGrid.EMPTY;
+    }
+
+    // --- Conversion avec les domaines de BinairoGrid ---
+
+    private static byte[][] loadDomains(BinairoGrid grid) {
+        int size = grid.getSize();
+        Map<String, Set<Integer>> gridDomains = grid.getDomains();
+        byte[][] domains = new byte[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int val = grid.getValue(r, c);
+                if (val != BinairoGrid.EMPTY) {
+                    domains[r][c] = val == BinairoGrid.ZERO ? CAN_ZERO : CAN_ONE;
+                    continue;
+                }
+                Set<Integer> domain = gridDomains.get(r + "," + c);
+                if (domain == null) {
+                    domains[r][c] = BOTH;
+                } else {
+                    byte mask = 0;
+                    if (domain.contains(BinairoGrid.ZERO)) mask |= CAN_ZERO;
+                    if (domain.contains(BinairoGrid.ONE)) mask |= CAN_ONE;
+                    domains[r][c] = mask;
+                }
+            }
+        }
+        return domains;
+    }
+
+    private static void storeDomains(BinairoGrid grid, byte[][] domains) {
+        int size = grid.getSize();
+        Map<String, Set<Integer>> gridDomains = grid.getDomains();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (grid.getValue(r, c) != BinairoGrid.EMPTY) continue;
+                Set<Integer> domain = gridDomains.get(r + "," + c);
+                if (domain == null) continue;
+                if ((domains[r][c] & CAN_ZERO) == 0) domain.remove(BinairoGrid.ZERO);
+                if ((domains[r][c] & CAN_ONE) == 0) domain.remove(BinairoGrid.ONE);
+            }
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package com.lsiproject.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base de grilles sur disque, pour de grands corpus.
+ *
+ * Un répertoire, deux fichiers par taille N :
+ *  - taille-N.dat : segment principal projeté en mémoire, en-tête de 16 octets puis enregistrements de largeur fixe ;
+ *  - taille-N.ajout : segment d'ajout (écriture en fin de fichier uniquement), recopié à la fin du principal par compact().
+ * Enregistrement : technique (1 octet, 0 si non évaluée) | options (1 octet, bit 0 : résolue) | score (4 octets)
+ * | cases sur 2 bits (même codage que GridFile).
+ *
+ * Les identifiants d'une taille sont 0..count(N)-1 (segment principal puis segment d'ajout) et ne changent pas
+ * à la compaction : l'enregistrement i se lit par simple calcul d'adresse. Un index (technique, résolue) -> identifiants
+ * est construit à la première consultation d'une taille en ne lisant que les deux premiers octets de chaque enregistrement.
+ */
+public class PuzzleDatabase implements AutoCloseable {
+
+    public static final int MAGIC = 0x424E4442; // "BNDB"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int STATE_OFFSET = 5; // Octet d'état de l'en-tête (0, ou MERGED pendant la fin d'une compaction)
+    private static final int COUNT_OFFSET = 12; // Nombre d'enregistrements du segment principal, dans l'en-tête
+    private static final byte MERGED = 1; // Le segment d'ajout présent sur disque est déjà compté dans le principal
+    private static final int META_BYTES = 6;
+    private static final int SOLVED_FLAG = 1;
+    private static final DifficultyRating.Level[] LEVELS = DifficultyRating.Level.values();
+
+    private final Path directory;
+    private final Map<Integer, Table> tables = new HashMap<>();
+
+    /**
+     * Ouvre (ou crée) la base dans ce répertoire.
+     */
+    public PuzzleDatabase(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * @return Le répertoire par défaut de la base, à côté des sauvegardes.
+     */
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), "BinairoSaves", "base");
+    }
+
+    public Path getDirectory() { return directory; }
+
+    /**
+     * @return Les tailles présentes dans la base, triées.
+     */
+    public synchronized int[] sizes() throws IOException {
+        List<Integer> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "taille-*.{dat,ajout}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    int size = Integer.parseInt(name.substring("taille-".length(), name.lastIndexOf('.')));
+                    if (!found.contains(size)) found.add(size);
+                } catch (NumberFormatException e) {
+                    // Fichier étranger à la base : ignoré
+                }
+            }
+        }
+        int[] result = new int[found.size()];
+        for (int i = 0; i < result.length; i++) result[i] = found.get(i);
+        Arrays.sort(result);
+        return result;
+    }
+
+    public synchronized int count(int size) throws IOException {
+        Table table = existingTable(size);
+        return table == null ? 0 : table.mainCount + table.appendCount;
+    }
+
+    /**
+     * Ajoute une grille dans le segment d'ajout de sa taille.
+     * @param level Technique la plus difficile (null : non évaluée).
+     * @return L'identifiant de la grille.
+     */
+    public synchronized int append(BinairoGrid puzzle, DifficultyRating.Level level, int score) throws IOException {
+        Table table = table(puzzle.getSize());
+        byte[] record = new byte[table.recordBytes];
+        record[0] = (byte) (level == null ? 0 : level.ordinal() + 1);
+        ByteBuffer.wrap(record).putInt(2, score);
+        int n = puzzle.getSize();
+        for (int i = 0; i < n * n; i++) {
+            record[META_BYTES + (i >> 2)] |= (byte) ((puzzle.getValue(i / n, i % n) + 1) << ((i & 3) << 1));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        long position = (long) table.appendCount * table.recordBytes;
+        while (buffer.hasRemaining()) position += table.appendChannel().write(buffer, position);
+
+        int id = table.mainCount + table.appendCount++;
+        if (table.index != null) table.bucket(record[0], false).add(id);
+        return id;
+    }
+
+    /**
+     * Lit la grille i (les autres enregistrements ne sont pas lus).
+     */
+    public synchronized BinairoGrid read(int size, int id) throws IOException {
+        Table table = requireTable(size, id);
+        BinairoGrid grid = new BinairoGrid(size);
+        ByteBuffer record = table.record(id);
+        for (int i = 0; i < size * size; i++) {
+            int code = record.get(META_BYTES + (i >> 2)) >> ((i & 3) << 1) & 3;
+            grid.setValue(i / size, i % size, code - 1);
+        }
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+
+    /**
+     * @return La technique la plus difficile de la grille i, ou null si elle n'a pas été évaluée.
+     */
+    public synchronized DifficultyRating.Level getLevel(int size, int id) throws IOException {
+        int code = requireTable(size, id).record(id).get(0);
+        return code == 0 ? null : LEVELS[code - 1];
+    }
+
+    public synchronized int getScore(int size, int id) throws IOException {
+        return requireTable(size, id).record(id).getInt(2);
+    }
+
+    public synchronized boolean isSolved(int size, int id) throws IOException {
+        return (requireTable(size, id).record(id).get(1) & SOLVED_FLAG) != 0;
+    }
+
+    /**
+     * Marque la grille i comme résolue (ou non) ; l'octet d'options est modifié sur place.
+     */
+    public synchronized void setSolved(int size, int id, boolean solved) throws IOException {
+        Table table = requireTable(size, id);
+        ByteBuffer record = table.record(id);
+        byte level = record.get(0);
+        byte flags = record.get(1);
+        boolean wasSolved = (flags & SOLVED_FLAG) != 0;
+        if (wasSolved == solved) return;
+        byte newFlags = (byte) (solved ? flags | SOLVED_FLAG : flags & ~SOLVED_FLAG);
+        if (id < table.mainCount) {
+            table.main.put(HEADER_BYTES + id * table.recordBytes + 1, newFlags);
+        } else {
+            long position = (long) (id - table.mainCount) * table.recordBytes + 1;
+            table.appendChannel().write(ByteBuffer.wrap(new byte[]{newFlags}), position);
+        }
+        if (table.index != null) {
+            table.bucket(level, wasSolved).remove(id);
+            table.bucket(level, solved).insert(id);
+        }
+    }
+
+    /**
+     * Sélectionne une tranche des grilles d'une taille, par l'index.
+     * @param level Technique exigée (null : toutes).
+     * @param solved Statut exigé (null : tous).
+     * @param offset Nombre de grilles correspondantes à sauter.
+     * @param limit Nombre maximal de grilles retournées.
+     * @return Les identifiants correspondants, en ordre croissant.
+     */
+    public synchronized int[] select(int size, DifficultyRating.Level level, Boolean solved, int offset, int limit)
+            throws IOException {
+        Table table = existingTable(size);
+        if (table == null) return new int[0];
+        table.buildIndex();
+        List<Bucket> matching = new ArrayList<>();
+        for (int code = 0; code <= LEVELS.length; code++) {
+            if (level != null && code != level.ordinal() + 1) continue;
+            for (int s = 0; s < 2; s++) {
+                if (solved != null && solved != (s == 1)) continue;
+                matching.add(table.index[code * 2 + s]);
+            }
+        }
+        int available = 0;
+        for (Bucket bucket : matching) available += bucket.count;
+
+        // Fusion des listes triées jusqu'à offset + limit éléments
+        int[] positions = new int[matching.size()];
+        int[] result = new int[Math.max(0, Math.min(limit, available - Math.max(0, offset)))];
+        int produced = 0;
+        int skipped = 0;
+        while (produced < result.length) {
+            int best = -1;
+            for (int b = 0; b < matching.size(); b++) {
+                Bucket bucket = matching.get(b);
+                if (positions[b] < bucket.count && (best < 0
+                        || bucket.ids[positions[b]] < matching.get(best).ids[positions[best]])) {
+                    best = b;
+                }
+            }
+            if (best < 0) break;
+            int id = matching.get(best).ids[positions[best]++];
+            if (skipped < offset) skipped++;
+            else result[produced++] = id;
+        }
+        return Arrays.copyOf(result, produced);
+    }
+
+    /**
+     * @return Le nombre de grilles d'une taille correspondant aux filtres (null : tous).
+     */
+    public synchronized int countMatching(int size, DifficultyRating.Level level, Boolean solved) throws IOException {
+        Table table = existingTable(size);
+        if (table == null) return 0;
+        table.buildIndex();
+        int total = 0;
+        for (int code = 0; code <= LEVELS.length; code++) {
+            if (level != null && code != level.ordinal() + 1) continue;
+            for (int s = 0; s < 2; s++) {
+                if (solved == null || solved == (s == 1)) total += table.index[code * 2 + s].count;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Fusionne le segment d'ajout dans le segment principal : ses enregistrements sont copiés à la suite de ceux
+     * du principal, puis le nombre d'enregistrements de l'en-tête est mis à jour et la projection étendue.
+     * Le fichier principal n'est jamais remplacé (impossible sous Windows tant qu'il est projeté) et ses
+     * enregistrements ne bougent pas : les identifiants et l'index restent valides. Une interruption avant
+     * la mise à jour de l'en-tête laisse la base inchangée (les octets copiés au-delà sont ignorés puis écrasés).
+     * Le nombre d'enregistrements et l'état MERGED sont écrits ensemble dans l'en-tête : après une interruption
+     * entre cette écriture et la suppression du segment d'ajout, l'ouverture supprime ce segment au lieu de
+     * compter ses enregistrements une seconde fois.
+     */
+    public synchronized void compact(int size) throws IOException {
+        Table table = existingTable(size);
+        if (table == null || table.appendCount == 0) return;
+        int total = table.mainCount + table.appendCount;
+        if (HEADER_BYTES + (long) total * table.recordBytes > Integer.MAX_VALUE) {
+            System.err.println("Compaction impossible : le segment principal dépasserait 2 Go (taille " + size + ").");
+            return;
+        }
+        long appendBytes = (long) table.appendCount * table.recordBytes;
+        table.mainChannel.position(HEADER_BYTES + (long) table.mainCount * table.recordBytes);
+        long copied = 0;
+        while (copied < appendBytes) {
+            copied += table.appendChannel().transferTo(copied, appendBytes - copied, table.mainChannel);
+        }
+        table.mainChannel.force(true);
+
+        table.main.put(STATE_OFFSET, MERGED);
+        table.main.putInt(COUNT_OFFSET, total);
+        table.main.force();
+        table.main = table.mainChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) total * table.recordBytes);
+        table.mainCount = total;
+        table.dropAppendSegment();
+        table.main.put(STATE_OFFSET, (byte) 0);
+        table.main.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Table table : tables.values()) table.close();
+        tables.clear();
+    }
+
+    // --- Tables par taille ---
+
+    private Table requireTable(int size, int id) throws IOException {
+        Table table = existingTable(size);
+        if (table == null || id < 0 || id >= table.mainCount + table.appendCount) {
+            throw new IllegalArgumentException("Grille inexistante : taille " + size + ", n° " + id);
+        }
+        return table;
+    }
+
+    private Table existingTable(int size) throws IOException {
+        Table table = tables.get(size);
+        if (table != null) return table;
+        if (!Files.exists(mainPath(size)) && !Files.exists(appendPath(size))) return null;
+        return table(size);
+    }
+
+    private Table table(int size) throws IOException {
+        Table table = tables.get(size);
+        if (table == null) {
+            if (size < 2 || size % 2 != 0 || size > 0xFFFF) throw new IllegalArgumentException("Taille non supportée : " + size);
+            table = new Table(size, mainPath(size), appendPath(size));
+            tables.put(size, table);
+        }
+        return table;
+    }
+
+    private Path mainPath(int size) { return directory.resolve("taille-" + size + ".dat"); }
+
+    private Path appendPath(int size) { return directory.resolve("taille-" + size + ".ajout"); }
+
+    private static ByteBuffer header(int size, int recordBytes, int count) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).put((byte) VERSION).put((byte) 0).putShort((short) size).putInt(recordBytes).putInt(count);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * Segment principal projeté et segment d'ajout d'une taille.
+     */
+    private static final class Table {
+        final int size;
+        final int recordBytes;
+        final Path mainPath;
+        final Path appendPath;
+        FileChannel mainChannel;
+        MappedByteBuffer main;
+        int mainCount;
+        private FileChannel appendChannel;
+        int appendCount;
+        Bucket[] index; // [technique * 2 + résolue], construit à la demande
+        private final byte[] scratch;
+
+        Table(int size, Path mainPath, Path appendPath) throws IOException {
+            this.size = size;
+            this.recordBytes = META_BYTES + (int) (((long) size * size * 2 + 7) / 8);
+            this.mainPath = mainPath;
+            this.appendPath = appendPath;
+            this.scratch = new byte[recordBytes];
+
+            if (!Files.exists(mainPath)) {
+                try (FileChannel out = FileChannel.open(mainPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                    out.write(header(size, recordBytes, 0));
+                }
+            }
+            mainChannel = FileChannel.open(mainPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            mainChannel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                mainChannel.close();
+                throw new IOException("Fichier de base invalide : " + mainPath);
+            }
+            int version = header.get() & 0xFF;
+            byte state = header.get();
+            int storedSize = header.getShort() & 0xFFFF;
+            int storedRecordBytes = header.getInt();
+            mainCount = header.getInt();
+            if (version != VERSION || storedSize != size || storedRecordBytes != recordBytes || mainCount < 0
+                    || HEADER_BYTES + (long) mainCount * recordBytes > mainChannel.size()) {
+                mainChannel.close();
+                throw new IOException("En-tête de base incohérent : " + mainPath);
+            }
+            if (HEADER_BYTES + (long) mainCount * recordBytes > Integer.MAX_VALUE) {
+                // Adresses des enregistrements calculées sur des int
+                mainChannel.close();
+                throw new IOException("Segment principal de plus de 2 Go non supporté : " + mainPath);
+            }
+            main = mainChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) mainCount * recordBytes);
+
+            if (state == MERGED) {
+                // Compaction interrompue après la mise à jour de l'en-tête : le segment d'ajout est déjà fusionné
+                Files.deleteIfExists(appendPath);
+                main.put(STATE_OFFSET, (byte) 0);
+                main.force();
+            }
+            if (Files.exists(appendPath)) {
+                // Un enregistrement incomplet (écriture interrompue) est tronqué
+                long length = Files.size(appendPath);
+                appendCount = (int) (length / recordBytes);
+                if (length % recordBytes != 0) appendChannel().truncate((long) appendCount * recordBytes);
+            }
+        }
+
+        FileChannel appendChannel() throws IOException {
+            if (appendChannel == null) {
+                appendChannel = FileChannel.open(appendPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            return appendChannel;
+        }
+
+        /**
+         * Supprime le segment d'ajout, une fois ses enregistrements fusionnés dans le principal.
+         */
+        void dropAppendSegment() throws IOException {
+            if (appendChannel != null) {
+                appendChannel.close();
+                appendChannel = null;
+            }
+            Files.deleteIfExists(appendPath);
+            appendCount = 0;
+        }
+
+        /**
+         * @return L'enregistrement id (vue sur la projection pour le segment principal, copie pour le segment d'ajout).
+         */
+        ByteBuffer record(int id) throws IOException {
+            if (id < mainCount) {
+                ByteBuffer view = main.duplicate();
+                view.position(HEADER_BYTES + id * recordBytes).limit(HEADER_BYTES + (id + 1) * recordBytes);
+                return view.slice();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(scratch);
+            long position = (long) (id - mainCount) * recordBytes;
+            while (buffer.hasRemaining()) {
+                if (appendChannel().read(buffer, position + buffer.position()) < 0) throw new IOException("Segment d'ajout tronqué.");
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        Bucket bucket(byte levelCode, boolean solved) {
+            return index[levelCode * 2 + (solved ? 1 : 0)];
+        }
+
+        void buildIndex() throws IOException {
+            if (index != null) return;
+            Bucket[] built = new Bucket[(LEVELS.length + 1) * 2];
+            for (int i = 0; i < built.length; i++) built[i] = new Bucket();
+            for (int id = 0; id < mainCount + appendCount; id++) {
+                int code;
+                int flags;
+                if (id < mainCount) {
+                    // Lecture directe des deux octets utiles dans la projection
+                    code = main.get(HEADER_BYTES + id * recordBytes);
+                    flags = main.get(HEADER_BYTES + id * recordBytes + 1);
+                } else {
+                    ByteBuffer record = record(id);
+                    code = record.get(0);
+                    flags = record.get(1);
+                }
+                if (code < 0 || code > LEVELS.length) code = 0;
+                built[code * 2 + (flags & SOLVED_FLAG)].add(id);
+            }
+            index = built;
+        }
+
+        void close() throws IOException {
+            main.force();
+            mainChannel.close();
+            if (appendChannel != null) {
+                appendChannel.force(true);
+                appendChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Liste triée d'identifiants (tableau primitif extensible).
+     */
+    private static final class Bucket {
+        int[] ids = new int[16];
+        int count;
+
+        void add(int id) {
+            if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+            ids[count++] = id;
+        }
+
+        void insert(int id) {
+            int pos = Arrays.binarySearch(ids, 0, count, id);
+            if (pos >= 0) return;
+            pos = -pos - 1;
+            if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+            System.arraycopy(ids, pos, ids, pos + 1, count - pos);
+            ids[pos] = id;
+            count++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, count, id);
+            if (pos < 0) return;
+            System.arraycopy(ids, pos + 1, ids, pos, count - pos - 1);
+            count--;
+        }
+    }
+}
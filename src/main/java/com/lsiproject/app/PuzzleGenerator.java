@@ -0,0 +1,137 @@
+package com.lsiproject.app;
+
+import java.util.Random;
+
+/**
+ * Générateur de grilles à solution unique.
+ * Part d'une solution complète aléatoire (GridSampler) puis retire les indices un par un (ordre aléatoire)
+ * tant que la solution reste unique. Le résultat est minimal : aucun indice restant ne peut être retiré.
+ *
+ * Test d'unicité incrémental : la grille P (solution unique S) privée de l'indice c reste unique
+ * si et seulement si P \ {c} avec c forcé à la valeur opposée à S(c) n'a aucune solution.
+ * Il suffit donc d'une recherche de satisfiabilité (souvent tranchée par la seule propagation),
+ * sur un état et une pile de recherche réutilisés d'un test à l'autre. L'état lui-même n'est pas incrémental :
+ * chaque test le remet à zéro et réaffecte tous les indices restants (O(n²) affectations, négligeable
+ * devant la recherche), car l'ensemble des indices ne varie pas en pile et ne se prête pas à une annulation par la trace.
+ *
+ * Sur les grandes grilles, une preuve d'absence de solution peut devenir coûteuse : au-delà d'un budget
+ * de nœuds, l'indice est conservé (ce qui préserve toujours l'unicité, au prix d'une minimalité approchée).
+ * La durée totale n'est pas bornée pour autant (n² tests) : les interfaces interactives s'en tiennent à MAX_INTERACTIVE_SIZE.
+ */
+public class PuzzleGenerator {
+
+    public static final long DEFAULT_NODES_PER_CHECK = 20_000;
+    /** Plus grande taille générée à la demande (20x20 : ~1,3 s ; 40x40 dépasse déjà dix minutes). */
+    public static final int MAX_INTERACTIVE_SIZE = GridSampler.MAX_SIZE;
+
+    private final Random random;
+    private long nodesPerCheck = DEFAULT_NODES_PER_CHECK;
+
+    public PuzzleGenerator() {
+        this(new Random());
+    }
+
+    public PuzzleGenerator(long seed) {
+        this(new Random(seed));
+    }
+
+    public PuzzleGenerator(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Définit le budget de nœuds d'un test d'unicité (<= 0 : illimité, minimalité garantie).
+     */
+    public void setNodesPerCheck(long nodesPerCheck) {
+        this.nodesPerCheck = nodesPerCheck;
+    }
+
+    /**
+     * Génère une grille minimale à solution unique.
+     * @return Un GridResolution contenant la grille d'indices et son unique solution.
+     */
+    public GridResolution generate(int size) {
+        BinairoGrid solution = generateSolution(size);
+        BinairoGrid puzzle = minimize(solution);
+        return new GridResolution(puzzle, solution, GridResolution.Status.SOLVED, 1, false);
+    }
+
+    /**
+     * Tire une grille complète valide : uniforme jusqu'à GridSampler.EXACT_MAX_SIZE, approchée
+     * jusqu'à GridSampler.MAX_SIZE, puis recherche avec ordre des valeurs aléatoire au-delà.
+     */
+    public BinairoGrid generateSolution(int size) {
+        if (size % 2 == 0 && size <= GridSampler.MAX_SIZE) {
+            return new GridSampler(random).sample(size);
+        }
+        BitboardSearch search = new BitboardSearch(new BitboardState(size));
+        search.setRandom(random);
+        if (!search.nextSolution()) {
+            throw new IllegalArgumentException("Aucune grille valide de taille " + size);
+        }
+        return search.getState().toGrid();
+    }
+
+    /**
+     * Retire les indices d'une solution complète tant que la solution reste unique.
+     * @param solution Grille complète et valide.
+     * @return La grille d'indices minimale (les cases retirées sont vides).
+     */
+    public BinairoGrid minimize(BinairoGrid solution) {
+        int size = solution.getSize();
+        int cells = size * size;
+
+        int[] values = new int[cells];
+        boolean[] isClue = new boolean[cells];
+        for (int i = 0; i < cells; i++) {
+            values[i] = solution.getValue(i / size, i % size);
+            isClue[i] = true;
+        }
+
+        int[] order = shuffledCells(cells);
+        BitboardState state = new BitboardState(size);
+        BitboardSearch search = new BitboardSearch(state);
+
+        for (int cell : order) {
+            isClue[cell] = false;
+            if (!isProvenUnique(state, search, values, isClue, cell)) {
+                isClue[cell] = true; // Indice nécessaire à l'unicité (ou preuve trop coûteuse)
+            }
+        }
+
+        BinairoGrid puzzle = new BinairoGrid(size);
+        for (int i = 0; i < cells; i++) {
+            if (isClue[i]) puzzle.setValue(i / size, i % size, values[i]);
+        }
+        return puzzle;
+    }
+
+    /**
+     * Vérifie qu'aucune solution des indices restants ne donne à la case retirée la valeur opposée.
+     * @return true si l'unicité est prouvée dans le budget de nœuds.
+     */
+    private boolean isProvenUnique(BitboardState state, BitboardSearch search,
+                                   int[] values, boolean[] isClue, int removed) {
+        int size = state.getSize();
+        state.reset();
+        for (int i = 0; i < isClue.length; i++) {
+            if (isClue[i]) state.assign(i / size, i % size, values[i]);
+        }
+        state.assign(removed / size, removed % size, 1 - values[removed]);
+        search.restart();
+        search.setLimits(nodesPerCheck > 0 ? new SearchLimits(0, nodesPerCheck) : null);
+        return !search.nextSolution() && !search.wasStopped();
+    }
+
+    private int[] shuffledCells(int cells) {
+        int[] order = new int[cells];
+        for (int i = 0; i < cells; i++) order[i] = i;
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+}
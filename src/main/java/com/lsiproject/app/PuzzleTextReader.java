@@ -0,0 +1,182 @@
+package com.lsiproject.app;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture en flux d'une collection de grilles au format texte, une grille par ligne :
+ * '.' pour une case vide, '0' ou '1' pour un indice, ligne par ligne (N² caractères, N pair).
+ * Les lignes produites par BulkGenerator (champs séparés par ';') sont acceptées : la grille est le dernier champ.
+ * Les lignes vides et les commentaires ('#') sont ignorés ; les lignes mal formées sont comptées et ignorées.
+ *
+ * Le texte est parcouru directement (CharSequence, par exemple un fichier projeté en mémoire) :
+ * aucune chaîne n'est créée par ligne ni par case, et les cases de la grille courante sont décodées
+ * dans un tableau réutilisé. Un fichier est projeté par fenêtres successives, sans limite de taille.
+ *
+ * Usage : while (reader.next()) { reader.getSize(); reader.getValue(r, c); reader.toGrid(); }
+ */
+public class PuzzleTextReader implements AutoCloseable {
+
+    private static final long WINDOW_BYTES = 1L << 28;
+
+    private CharSequence text;
+    private int pos;
+
+    // Lecture d'un fichier par fenêtres (null pour un texte en mémoire)
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowBytes;
+    private long windowStart;
+
+    private byte[] cells = new byte[0];
+    private int size;
+    private long lineNumber;
+    private long skippedLines;
+
+    public PuzzleTextReader(CharSequence text) {
+        this.text = text;
+        this.channel = null;
+        this.fileSize = text.length();
+        this.windowBytes = 0;
+    }
+
+    private PuzzleTextReader(FileChannel channel, long windowBytes) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.windowBytes = windowBytes;
+        map(0);
+    }
+
+    /**
+     * Ouvre un fichier ASCII en le projetant en mémoire.
+     */
+    public static PuzzleTextReader open(Path path) throws IOException {
+        return open(path, WINDOW_BYTES);
+    }
+
+    /**
+     * Variante à fenêtres de taille choisie (petites fenêtres : lignes coupées en test sans fichier de 256 Mo).
+     */
+    static PuzzleTextReader open(Path path, long windowBytes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new PuzzleTextReader(channel, windowBytes);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) channel.close();
+    }
+
+    /**
+     * Avance jusqu'à la prochaine grille valide.
+     * @return false à la fin du texte.
+     */
+    public boolean next() {
+        while (true) {
+            int length = text.length();
+            if (pos >= length) {
+                if (!hasMoreWindows() || !map(windowStart + length)) return false;
+                continue;
+            }
+
+            // Fin de ligne et dernier séparateur ';' en un seul passage
+            int lineStart = pos;
+            int semicolon = -1;
+            int k = pos;
+            while (k < length) {
+                char ch = text.charAt(k);
+                if (ch == '\n') break;
+                if (ch == ';') semicolon = k;
+                k++;
+            }
+            if (k == length && hasMoreWindows()) {
+                // Ligne coupée par la fin de la fenêtre : la fenêtre suivante commence au début de cette ligne
+                if (lineStart == 0) {
+                    System.err.println("Ligne " + (lineNumber + 1) + " trop longue : lecture interrompue.");
+                    return false;
+                }
+                if (!map(windowStart + lineStart)) return false;
+                continue;
+            }
+
+            pos = k + 1;
+            lineNumber++;
+            int end = k > lineStart && text.charAt(k - 1) == '\r' ? k - 1 : k;
+            if (end == lineStart || text.charAt(lineStart) == '#') continue;
+            if (parseCells(semicolon >= 0 ? semicolon + 1 : lineStart, end)) return true;
+            skippedLines++;
+        }
+    }
+
+    public int getSize() { return size; }
+
+    /**
+     * @return La valeur de la case dans la grille courante (EMPTY, ZERO ou ONE).
+     */
+    public int getValue(int r, int c) { return cells[r * size + c]; }
+
+    /**
+     * @return Le numéro (à partir de 1) de la ligne de la grille courante.
+     */
+    public long getLineNumber() { return lineNumber; }
+
+    /**
+     * @return Le nombre de lignes mal formées ignorées jusqu'ici.
+     */
+    public long getSkippedLines() { return skippedLines; }
+
+    /**
+     * @return Une nouvelle BinairoGrid contenant la grille courante.
+     */
+    public BinairoGrid toGrid() {
+        BinairoGrid grid = new BinairoGrid(size);
+        for (int i = 0; i < size * size; i++) {
+            grid.setValue(i / size, i % size, cells[i]);
+        }
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+
+    private boolean parseCells(int start, int end) {
+        int length = end - start;
+        int n = (int) Math.sqrt(length);
+        if (n < 2 || n * n != length || n % 2 != 0) return false;
+        if (cells.length < length) cells = new byte[length];
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(start + i);
+            if (ch == '.') cells[i] = BinairoGrid.EMPTY;
+            else if (ch == '0') cells[i] = BinairoGrid.ZERO;
+            else if (ch == '1') cells[i] = BinairoGrid.ONE;
+            else return false;
+        }
+        size = n;
+        return true;
+    }
+
+    private boolean hasMoreWindows() {
+        return channel != null && windowStart + text.length() < fileSize;
+    }
+
+    /**
+     * Projette la fenêtre commençant à l'octet start du fichier.
+     */
+    private boolean map(long start) {
+        try {
+            long length = Math.min(windowBytes, fileSize - start);
+            text = new AsciiCharSequence(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            windowStart = start;
+            pos = 0;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erreur de lecture : " + e.getMessage());
+            return false;
+        }
+    }
+}
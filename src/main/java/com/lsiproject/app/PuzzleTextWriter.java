@@ -0,0 +1,64 @@
+package com.lsiproject.app;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Écriture en flux d'une collection de grilles au format texte lu par PuzzleTextReader
+ * (une grille par ligne, '.' pour une case vide, '0' ou '1' sinon).
+ * Chaque grille est encodée dans un tampon de caractères réutilisé : aucune chaîne n'est créée par grille.
+ */
+public class PuzzleTextWriter implements AutoCloseable {
+
+    private final Writer out;
+    private char[] line = new char[0];
+    private long written;
+
+    /**
+     * @param out Destination (de préférence tamponnée, par ex. Files.newBufferedWriter).
+     */
+    public PuzzleTextWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void write(BinairoGrid grid) throws IOException {
+        int length = encode(grid);
+        line[length] = '\n';
+        out.write(line, 0, length + 1);
+        written++;
+    }
+
+    public long getWrittenCount() { return written; }
+
+    public void flush() throws IOException { out.flush(); }
+
+    @Override
+    public void close() throws IOException { out.close(); }
+
+    /**
+     * @return La grille en une ligne (sans fin de ligne).
+     */
+    public static String toLine(BinairoGrid grid) {
+        int n = grid.getSize();
+        char[] chars = new char[n * n];
+        fill(grid, chars);
+        return new String(chars);
+    }
+
+    private int encode(BinairoGrid grid) {
+        int length = grid.getSize() * grid.getSize();
+        if (line.length < length + 1) line = new char[length + 1];
+        fill(grid, line);
+        return length;
+    }
+
+    private static void fill(BinairoGrid grid, char[] chars) {
+        int n = grid.getSize();
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int val = grid.getValue(r, c);
+                chars[r * n + c] = val == BinairoGrid.EMPTY ? '.' : (char) ('0' + val);
+            }
+        }
+    }
+}
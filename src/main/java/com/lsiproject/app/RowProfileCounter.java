@@ -0,0 +1,289 @@
+package com.lsiproject.app;
+
+/**
+ * Comptage des complétions d'une grille par programmation dynamique ligne par ligne.
+ * Les lignes sont traitées de haut en bas ; chaque transition ajoute une ligne valide (LinePatterns)
+ * compatible avec les indices. Les états d'une couche sont agrégés dans une StateCountMap.
+ *
+ * - Mode exact (taille <= 10) : état = ensemble des lignes déjà utilisées (R3 lignes), deux dernières lignes
+ *   (R1 colonnes) et partition des colonnes ayant le même préfixe (R3 colonnes). Les compteurs de colonnes
+ *   (R2) se déduisent de l'ensemble des lignes utilisées.
+ * - Mode relâché (taille <= 16) : R3 est ignorée ; état = compteurs de 1 par colonne et deux dernières lignes.
+ *
+ * Sur une grille vide, les états fusionnent peu : au-delà de 8x8 leur nombre dépasse la mémoire disponible.
+ * Le comptage est alors abandonné (résultat -1) dès que le budget d'états est dépassé ; les grilles
+ * comportant des indices restent traitables jusqu'aux tailles maximales.
+ */
+public class RowProfileCounter {
+
+    public static final int MAX_EXACT_SIZE = 10;
+    public static final int MAX_RELAXED_SIZE = 16;
+    public static final int DEFAULT_MAX_STATES = 4_000_000;
+
+    private int maxStates = DEFAULT_MAX_STATES;
+    private boolean saturated;
+    private boolean statesExceeded;
+    private int peakStates;
+
+    /**
+     * Définit le nombre maximal d'états d'une couche avant abandon du comptage.
+     */
+    public void setMaxStates(int maxStates) { this.maxStates = maxStates; }
+
+    /**
+     * @return true si le dernier comptage a été abandonné faute de mémoire (budget d'états dépassé).
+     */
+    public boolean hasExceededStates() { return statesExceeded; }
+
+    /**
+     * @return true si le dernier comptage a dépassé Long.MAX_VALUE (résultat tronqué).
+     */
+    public boolean isSaturated() { return saturated; }
+
+    /**
+     * @return Le nombre maximal d'états mémorisés simultanément lors du dernier comptage.
+     */
+    public int getPeakStates() { return peakStates; }
+
+    /**
+     * Compte exactement les complétions valides (R1, R2, R3) de la grille.
+     * @return Le nombre de complétions, ou -1 si le budget d'états a été dépassé.
+     */
+    public long countExact(BinairoGrid grid) {
+        int size = grid.getSize();
+        if (size > MAX_EXACT_SIZE) {
+            throw new IllegalArgumentException("Comptage exact limité aux grilles " + MAX_EXACT_SIZE + "x" + MAX_EXACT_SIZE);
+        }
+        long[] patterns = LinePatterns.forSize(size);
+        int[][] candidates = rowCandidates(grid, patterns);
+        long[] spread = spreadPatterns(patterns, size);
+        long nibbleOnes = spreadMask(size);
+        int maxPerValue = (size + 1) / 2;
+        long full = (1L << size) - 1;
+        resetStats();
+
+        // Clé : [ensemble bas, ensemble haut, (avant-dernière + 1) | (dernière + 1) << 8 | partition << 16]
+        long[] key = new long[3];
+        StateCountMap layer = new StateCountMap(3, 16);
+        layer.add(key, 1);
+        int[] labels = new int[size];
+        int[] relabel = new int[2 * size];
+
+        for (int depth = 0; depth < size; depth++) {
+            StateCountMap next = new StateCountMap(3, layer.size());
+            for (int slot = 0; slot < layer.capacity(); slot++) {
+                if (!layer.isUsed(slot)) continue;
+                long count = layer.countAt(slot);
+                long setLow = layer.keyAt(slot, 0);
+                long setHigh = layer.keyAt(slot, 1);
+                long tail = layer.keyAt(slot, 2);
+                int prev = (int) (tail & 0xFF) - 1;
+                int last = (int) ((tail >>> 8) & 0xFF) - 1;
+                long partition = tail >>> 16;
+
+                long columnCounts = 0;
+                for (int idx = 0; idx < patterns.length; idx++) {
+                    if (isInSet(setLow, setHigh, idx)) columnCounts += spread[idx];
+                }
+
+                for (int idx : candidates[depth]) {
+                    if (isInSet(setLow, setHigh, idx)) continue; // R3 lignes
+                    long pattern = patterns[idx];
+                    if (createsColumnTriple(patterns, prev, last, pattern, full)) continue;
+                    long newCounts = columnCounts + spread[idx];
+                    if (!columnCountsValid(newCounts, depth + 1, maxPerValue, nibbleOnes)) continue;
+
+                    key[0] = idx < 64 ? setLow | (1L << idx) : setLow;
+                    key[1] = idx < 64 ? setHigh : setHigh | (1L << (idx - 64));
+                    long newPartition = refinePartition(partition, pattern, size, labels, relabel);
+                    key[2] = (last + 1) | ((long) (idx + 1) << 8) | (newPartition << 16);
+                    next.add(key, count);
+                }
+                if (next.size() > maxStates) return abandon();
+            }
+            layer = next;
+            recordStats(layer);
+        }
+
+        // R3 colonnes : toutes les colonnes doivent être dans des classes distinctes
+        long identity = 0;
+        for (int c = 0; c < size; c++) identity |= (long) c << (4 * c);
+        long total = 0;
+        for (int slot = 0; slot < layer.capacity(); slot++) {
+            if (layer.isUsed(slot) && (layer.keyAt(slot, 2) >>> 16) == identity) {
+                total = saturatingAdd(total, layer.countAt(slot));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Compte les complétions respectant R1 et R2 (R3 ignorée) : borne supérieure rapide du nombre de solutions.
+     * @return Le nombre de complétions, ou -1 si le budget d'états a été dépassé.
+     */
+    public long countRelaxed(BinairoGrid grid) {
+        int size = grid.getSize();
+        if (size > MAX_RELAXED_SIZE) {
+            throw new IllegalArgumentException("Comptage relâché limité aux grilles " + MAX_RELAXED_SIZE + "x" + MAX_RELAXED_SIZE);
+        }
+        long[] patterns = LinePatterns.forSize(size);
+        int[][] candidates = rowCandidates(grid, patterns);
+        long[] spread = spreadPatterns(patterns, size);
+        long nibbleOnes = spreadMask(size);
+        int maxPerValue = (size + 1) / 2;
+        long full = (1L << size) - 1;
+        resetStats();
+
+        // Clé : [compteurs de 1 par colonne (4 bits chacun), (avant-dernière + 1) | (dernière + 1) << 16]
+        long[] key = new long[2];
+        StateCountMap layer = new StateCountMap(2, 16);
+        layer.add(key, 1);
+
+        for (int depth = 0; depth < size; depth++) {
+            StateCountMap next = new StateCountMap(2, layer.size());
+            for (int slot = 0; slot < layer.capacity(); slot++) {
+                if (!layer.isUsed(slot)) continue;
+                long count = layer.countAt(slot);
+                long columnCounts = layer.keyAt(slot, 0);
+                long tail = layer.keyAt(slot, 1);
+                int prev = (int) (tail & 0xFFFF) - 1;
+                int last = (int) ((tail >>> 16) & 0xFFFF) - 1;
+
+                for (int idx : candidates[depth]) {
+                    long pattern = patterns[idx];
+                    if (createsColumnTriple(patterns, prev, last, pattern, full)) continue;
+                    long newCounts = columnCounts + spread[idx];
+                    if (!columnCountsValid(newCounts, depth + 1, maxPerValue, nibbleOnes)) continue;
+
+                    key[0] = newCounts;
+                    key[1] = (last + 1) | ((long) (idx + 1) << 16);
+                    next.add(key, count);
+                }
+                if (next.size() > maxStates) return abandon();
+            }
+            layer = next;
+            recordStats(layer);
+        }
+
+        long total = 0;
+        for (int slot = 0; slot < layer.capacity(); slot++) {
+            if (layer.isUsed(slot)) total = saturatingAdd(total, layer.countAt(slot));
+        }
+        return total;
+    }
+
+    // --- Utilitaires ---
+
+    /**
+     * Pour chaque ligne de la grille, liste les motifs compatibles avec ses indices.
+     */
+    static int[][] rowCandidates(BinairoGrid grid, long[] patterns) {
+        int size = grid.getSize();
+        int[][] candidates = new int[size][];
+        int[] buffer = new int[patterns.length];
+        for (int r = 0; r < size; r++) {
+            long ones = 0;
+            long zeros = 0;
+            for (int c = 0; c < size; c++) {
+                int val = grid.getValue(r, c);
+                if (val == BinairoGrid.ONE) ones |= 1L << c;
+                else if (val == BinairoGrid.ZERO) zeros |= 1L << c;
+            }
+            int count = 0;
+            for (int idx = 0; idx < patterns.length; idx++) {
+                if (LinePatterns.isCompatible(patterns[idx], ones, zeros)) buffer[count++] = idx;
+            }
+            candidates[r] = java.util.Arrays.copyOf(buffer, count);
+        }
+        return candidates;
+    }
+
+    static boolean createsColumnTriple(long[] patterns, int prev, int last, long pattern, long full) {
+        if (prev < 0) return false;
+        long a = patterns[prev];
+        long b = patterns[last];
+        return (a & b & pattern) != 0 || (~a & ~b & ~pattern & full) != 0;
+    }
+
+    /**
+     * Vérifie R2 sur les colonnes : après depth lignes, chaque colonne a au plus maxPerValue 1
+     * et au plus maxPerValue 0. Les compteurs sont testés tous à la fois (4 bits par colonne).
+     * Aucun biais n'est négatif : une soustraction propagerait une retenue d'un compteur à l'autre.
+     */
+    static boolean columnCountsValid(long counts, int depth, int maxPerValue, long nibbleOnes) {
+        long high = nibbleOnes << 3;
+        long tooManyOnes = maxPerValue < 8
+                ? (counts + (7 - maxPerValue) * nibbleOnes) & high
+                // maxPerValue = 8 (tailles 15 et 16) : un compteur dépasse 8 si son bit 3 et l'un de ses bits 0-2 sont à 1
+                : ((counts & 7 * nibbleOnes) + 7 * nibbleOnes) & counts & high;
+        if (tooManyOnes != 0) return false; // trop de 1
+        int minOnes = depth - maxPerValue;
+        if (minOnes <= 0) return true;
+        return ((counts + (8 - minOnes) * nibbleOnes) & high) == high; // trop de 0
+    }
+
+    // Répartit les bits d'un motif sur des compteurs de 4 bits (bit k -> 1 << 4k)
+    static long[] spreadPatterns(long[] patterns, int size) {
+        long[] spread = new long[patterns.length];
+        for (int idx = 0; idx < patterns.length; idx++) {
+            for (int k = 0; k < size; k++) {
+                if ((patterns[idx] & (1L << k)) != 0) spread[idx] |= 1L << (4 * k);
+            }
+        }
+        return spread;
+    }
+
+    static long spreadMask(int size) {
+        long mask = 0;
+        for (int k = 0; k < size; k++) mask |= 1L << (4 * k);
+        return mask;
+    }
+
+    private static boolean isInSet(long low, long high, int idx) {
+        return idx < 64 ? (low & (1L << idx)) != 0 : (high & (1L << (idx - 64))) != 0;
+    }
+
+    /**
+     * Raffine la partition canonique des colonnes (étiquettes de 4 bits, numérotées par première apparition)
+     * en séparant les colonnes d'une même classe selon la valeur de la nouvelle ligne.
+     */
+    private static long refinePartition(long partition, long pattern, int size, int[] labels, int[] relabel) {
+        java.util.Arrays.fill(relabel, -1);
+        int nextLabel = 0;
+        long result = 0;
+        for (int c = 0; c < size; c++) {
+            int old = (int) ((partition >>> (4 * c)) & 0xF);
+            int bit = (int) ((pattern >>> c) & 1);
+            int slot = old * 2 + bit;
+            if (relabel[slot] == -1) relabel[slot] = nextLabel++;
+            labels[c] = relabel[slot];
+            result |= (long) labels[c] << (4 * c);
+        }
+        return result;
+    }
+
+    private long saturatingAdd(long a, long b) {
+        long sum = a + b;
+        if (sum < 0) {
+            saturated = true;
+            return Long.MAX_VALUE;
+        }
+        return sum;
+    }
+
+    private long abandon() {
+        statesExceeded = true;
+        return -1;
+    }
+
+    private void resetStats() {
+        saturated = false;
+        statesExceeded = false;
+        peakStates = 0;
+    }
+
+    private void recordStats(StateCountMap layer) {
+        peakStates = Math.max(peakStates, layer.size());
+        if (layer.isSaturated()) saturated = true;
+    }
+}
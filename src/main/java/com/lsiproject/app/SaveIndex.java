@@ -0,0 +1,184 @@
+package com.lsiproject.app;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Index des sauvegardes d'un répertoire (fichier index.bin) : taille, remplissage, date et statut de chaque partie,
+ * sans relire les grilles. L'index est mis à jour à chaque sauvegarde ; à la consultation, seules les entrées dont
+ * la date de modification du fichier a changé (et les fichiers inconnus) sont relues, et les fichiers disparus retirés.
+ */
+public class SaveIndex {
+
+    public static final String INDEX_FILE = "index.bin";
+    private static final int MAGIC = 0x424E4958; // "BNIX"
+    private static final int VERSION = 1;
+
+    /**
+     * Métadonnées d'une sauvegarde.
+     */
+    public static final class Entry {
+        private final String fileName;
+        private final int size;
+        private final int filled;
+        private final long timestamp;
+        private final boolean solved;
+        private final long modified;
+
+        Entry(String fileName, int size, int filled, long timestamp, boolean solved, long modified) {
+            this.fileName = fileName;
+            this.size = size;
+            this.filled = filled;
+            this.timestamp = timestamp;
+            this.solved = solved;
+            this.modified = modified;
+        }
+
+        public String getFileName() { return fileName; }
+        public int getSize() { return size; }
+        public int getFilledCells() { return filled; }
+        public double getFillRatio() { return size == 0 ? 0 : (double) filled / (size * size); }
+        /** @return La date de la sauvegarde (ms depuis l'époque). */
+        public long getTimestamp() { return timestamp; }
+        public boolean isSolved() { return solved; }
+    }
+
+    private final Path directory;
+    private final Path indexPath;
+    private final Function<String, BinairoGrid> loader;
+    private Map<String, Entry> entries; // Chargé à la première consultation
+
+    /**
+     * @param loader Lecture d'une sauvegarde par nom de fichier (null si illisible), utilisée pour les entrées à revalider.
+     */
+    public SaveIndex(Path directory, Function<String, BinairoGrid> loader) {
+        this.directory = directory;
+        this.indexPath = directory.resolve(INDEX_FILE);
+        this.loader = loader;
+    }
+
+    /**
+     * Enregistre (ou remplace) l'entrée d'une sauvegarde qui vient d'être écrite.
+     */
+    public synchronized void update(String fileName, BinairoGrid grid) {
+        load();
+        entries.put(fileName, describe(fileName, grid, System.currentTimeMillis()));
+        store();
+    }
+
+    /**
+     * @return Les sauvegardes, de la plus récente à la plus ancienne, après revalidation paresseuse.
+     */
+    public synchronized List<Entry> list() {
+        load();
+        boolean changed = false;
+        Set<String> present = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{bnr,bnj,ser}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                present.add(name);
+                Entry entry = entries.get(name);
+                long modified = file.toFile().lastModified();
+                if (entry != null && entry.modified == modified) continue;
+
+                // Fichier nouveau ou modifié depuis son indexation : seul cas où la grille est relue
+                BinairoGrid grid = loader.apply(name);
+                if (grid == null) {
+                    if (entries.remove(name) != null) changed = true;
+                    continue;
+                }
+                long timestamp = entry != null ? entry.timestamp : modified;
+                entries.put(name, describe(name, grid, timestamp));
+                changed = true;
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur de lecture du répertoire de sauvegarde: " + e.getMessage());
+        }
+        if (entries.keySet().retainAll(present)) changed = true;
+        if (changed) store();
+
+        List<Entry> result = new ArrayList<>(entries.values());
+        result.sort(Comparator.comparingLong(Entry::getTimestamp).reversed());
+        return result;
+    }
+
+    private Entry describe(String fileName, BinairoGrid grid, long timestamp) {
+        int n = grid.getSize();
+        int filled = 0;
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                if (grid.getValue(r, c) != BinairoGrid.EMPTY) filled++;
+            }
+        }
+        boolean solved = filled == n * n && grid.isCompletelyValid();
+        long modified = new File(directory.toFile(), fileName).lastModified();
+        return new Entry(fileName, n, filled, timestamp, solved, modified);
+    }
+
+    private void load() {
+        if (entries != null) return;
+        entries = new LinkedHashMap<>();
+        if (!Files.exists(indexPath)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                System.err.println("Index des sauvegardes invalide : il sera reconstruit.");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                int size = in.readUnsignedShort();
+                int filled = in.readInt();
+                long timestamp = in.readLong();
+                boolean solved = in.readBoolean();
+                long modified = in.readLong();
+                entries.put(name, new Entry(name, size, filled, timestamp, solved, modified));
+            }
+        } catch (IOException e) {
+            // Index tronqué ou illisible : les entrées manquantes seront reconstruites par list()
+            System.err.println("Index des sauvegardes illisible : il sera reconstruit (" + e.getMessage() + ").");
+        }
+    }
+
+    /**
+     * Réécrit l'index (fichier temporaire puis remplacement atomique).
+     */
+    private void store() {
+        Path temp = directory.resolve(INDEX_FILE + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries.values()) {
+                    out.writeUTF(entry.fileName);
+                    out.writeShort(entry.size);
+                    out.writeInt(entry.filled);
+                    out.writeLong(entry.timestamp);
+                    out.writeBoolean(entry.solved);
+                    out.writeLong(entry.modified);
+                }
+            }
+            Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture de l'index des sauvegardes: " + e.getMessage());
+        }
+    }
+}
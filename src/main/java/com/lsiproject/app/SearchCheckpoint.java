@@ -0,0 +1,142 @@
+package com.lsiproject.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Fichier de reprise d'une recherche longue (voir BitboardSearch.toCheckpoint / fromCheckpoint).
+ *
+ * La recherche ne fait que copier son état en mémoire ; l'écriture sur disque a lieu dans un thread dédié.
+ * Seul le dernier instantané en attente est conservé : si le disque est lent, les instantanés intermédiaires
+ * sont abandonnés au lieu de s'accumuler. Chaque écriture passe par un fichier temporaire synchronisé sur disque
+ * puis remplacé atomiquement : le fichier de reprise est toujours complet.
+ *
+ * Structure (gros-boutiste) : magic "BNCK" (4 octets) | version (1) | longueur L (4) | état (L octets) | CRC32 (4).
+ */
+public class SearchCheckpoint implements AutoCloseable {
+
+    public static final int MAGIC = 0x424E434B; // "BNCK"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 9;
+
+    private final Path file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "binairo-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+    private volatile long writtenCount;
+
+    public SearchCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() { return file; }
+
+    /**
+     * @return Le nombre d'instantanés effectivement écrits sur disque.
+     */
+    public long getWrittenCount() { return writtenCount; }
+
+    /**
+     * Programme l'écriture d'un instantané (remplace celui qui n'a pas encore été écrit).
+     */
+    public void submit(byte[] state) {
+        if (pending.getAndSet(state) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Attend la fin de l'écriture en cours et de celle en attente.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Erreur du point de reprise : " + e.getCause());
+        }
+    }
+
+    /**
+     * Supprime le fichier de reprise (recherche terminée) après les écritures en attente.
+     */
+    public void delete() {
+        pending.set(null);
+        flush();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Impossible de supprimer le point de reprise : " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        writer.shutdown();
+    }
+
+    /**
+     * @return L'état enregistré, ou null si le fichier n'existe pas.
+     * @throws IOException Si le fichier est tronqué, d'une autre version ou corrompu (CRC invalide).
+     */
+    public static byte[] read(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES + 4) throw new IOException("Point de reprise tronqué");
+        if (buffer.getInt() != MAGIC) throw new IOException("Ce fichier n'est pas un point de reprise");
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION) throw new IOException("Version de point de reprise non supportée : " + version);
+        int length = buffer.getInt();
+        if (length < 0 || length != buffer.remaining() - 4) throw new IOException("Point de reprise tronqué");
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, HEADER_BYTES + length);
+        byte[] state = new byte[length];
+        buffer.get(state);
+        if (buffer.getInt() != (int) crc.getValue()) throw new IOException("Point de reprise corrompu (CRC invalide)");
+        return state;
+    }
+
+    private void writePending() {
+        byte[] state = pending.getAndSet(null);
+        if (state == null) return;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + state.length + 4).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.putInt(state.length);
+        buffer.put(state);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writtenCount++;
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du point de reprise : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.lsiproject.app;
+
+/**
+ * Limites coopératives d'une recherche : échéance, budget de nœuds et annulation.
+ * Le solveur consulte ces limites à chaque nœud exploré et s'arrête proprement
+ * dès que l'une d'elles est atteinte. Une recherche dont les nœuds coûtent moins qu'une lecture
+ * de l'horloge (BitboardSearch) vérifie budget et annulation à chaque nœud (isOverBudget)
+ * et l'échéance seulement de temps en temps (shouldStop).
+ */
+public class SearchLimits {
+
+    private final long deadlineNanos; // Échéance absolue (System.nanoTime), ou aucune
+    private final boolean hasDeadline;
+    private final long nodeBudget;    // Long.MAX_VALUE si illimité
+    private final SearchLimits parent; // Limites englobantes dont l'annulation arrête aussi celles-ci, ou null
+
+    private volatile boolean cancelled = false;
+    private volatile GridResolution.Status stopReason = null;
+
+    /**
+     * @param timeoutMillis Délai maximal à partir de maintenant (<= 0 : aucun délai).
+     * @param nodeBudget Nombre maximal de nœuds explorés (<= 0 : illimité).
+     */
+    public SearchLimits(long timeoutMillis, long nodeBudget) {
+        this(timeoutMillis, nodeBudget, null);
+    }
+
+    private SearchLimits(long timeoutMillis, long nodeBudget, SearchLimits parent) {
+        this.parent = parent;
+        this.hasDeadline = timeoutMillis > 0;
+        this.deadlineNanos = hasDeadline ? System.nanoTime() + timeoutMillis * 1_000_000L : 0;
+        this.nodeBudget = nodeBudget > 0 ? nodeBudget : Long.MAX_VALUE;
+    }
+
+    public static SearchLimits unlimited() {
+        return new SearchLimits(0, 0);
+    }
+
+    /**
+     * Limites propres à une sous-recherche (délai et budget plus courts, par exemple),
+     * qui s'arrêtent aussi dès que celles-ci sont annulées.
+     */
+    public SearchLimits child(long timeoutMillis, long nodeBudget) {
+        return new SearchLimits(timeoutMillis, nodeBudget, this);
+    }
+
+    /**
+     * Demande l'arrêt de la recherche (pris en compte au prochain nœud).
+     */
+    public void cancel() { this.cancelled = true; }
+
+    public boolean isCancelled() { return cancelled || (parent != null && parent.isCancelled()); }
+
+    /**
+     * Vérifie si la recherche doit s'arrêter et mémorise la raison de l'arrêt.
+     * @param nodesVisited Nombre de nœuds déjà explorés.
+     */
+    public boolean shouldStop(long nodesVisited) {
+        if (isOverBudget(nodesVisited)) return true;
+        if (hasDeadline && System.nanoTime() - deadlineNanos >= 0) {
+            stopReason = GridResolution.Status.TIMEOUT;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Comme shouldStop, sans l'échéance : annulation et budget de nœuds seulement, sans lire l'horloge.
+     * @param nodesVisited Nombre de nœuds déjà explorés.
+     */
+    public boolean isOverBudget(long nodesVisited) {
+        if (isCancelled()) {
+            stopReason = GridResolution.Status.CANCELLED;
+            return true;
+        }
+        if (nodesVisited >= nodeBudget) {
+            stopReason = GridResolution.Status.NODE_LIMIT;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return La raison du dernier arrêt, ou null si la recherche n'a pas été interrompue.
+     */
+    public GridResolution.Status getStopReason() { return stopReason; }
+}
@@ -0,0 +1,16 @@
+package com.lsiproject.app;
+
+/**
+ * Reçoit la progression d'une résolution en cours.
+ * Les appels sont limités en fréquence par le solveur et faits depuis le thread de recherche.
+ */
+public interface SearchProgressListener {
+
+    /**
+     * @param nodesVisited Nombre de nœuds explorés depuis le début de la recherche.
+     * @param nodesPerSecond Débit moyen depuis le début de la recherche.
+     * @param depth Profondeur actuelle dans l'arbre de recherche.
+     * @param partialGrid Copie de la grille partielle du nœud courant.
+     */
+    void onProgress(long nodesVisited, double nodesPerSecond, int depth, BinairoGrid partialGrid);
+}
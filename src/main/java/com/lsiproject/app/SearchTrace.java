@@ -0,0 +1,152 @@
+package com.lsiproject.app;
+
+/**
+ * Trace des événements de cspBacktracking (affectations, réductions de domaine, retours arrière),
+ * conservée dans un tampon circulaire de longs : aucune allocation par événement, et seuls les
+ * derniers événements sont gardés quand la capacité est dépassée.
+ * Le solveur ne trace rien (et ne paie rien) tant qu'aucune trace ne lui est attachée.
+ *
+ * La trace maintient aussi la valeur courante de chaque case : l'état de la grille avant le plus ancien
+ * événement conservé se reconstruit en annulant les événements depuis la fin (getStartGrid).
+ *
+ * Codage d'un événement : type (3 bits) | choix de la variable (3 bits) | LCV (1 bit) | valeur (1 bit)
+ * | ligne (16 bits) | colonne (16 bits) | profondeur (24 bits).
+ */
+public class SearchTrace {
+
+    // Types d'événements
+    public static final int ASSIGN = 0;      // Valeur essayée sur une case
+    public static final int PRUNE = 1;      // Valeur retirée du domaine d'une case (FC)
+    public static final int BACKTRACK = 2;   // Affectation annulée (incohérente ou sans solution)
+    public static final int SOLUTION = 3;    // Grille complète et valide atteinte
+
+    // Heuristique ayant choisi la variable (événements ASSIGN)
+    public static final int BY_ORDER = 0;    // Première case vide (ni MVR ni Degré décisif)
+    public static final int BY_MRV = 1;      // Plus petit domaine
+    public static final int BY_DEGREE = 2;   // Départage ou choix par le degré
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final long[] events;
+    private final int mask;
+    private long total;
+
+    private int size;
+    private byte[] cells; // Valeur courante de chaque case (EMPTY, ZERO ou ONE)
+
+    /**
+     * @param capacity Nombre d'événements conservés (arrondi à la puissance de deux supérieure).
+     */
+    public SearchTrace(int capacity) {
+        int pow = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.events = new long[pow];
+        this.mask = pow - 1;
+    }
+
+    /**
+     * Vide la trace et mémorise la grille de départ de la recherche.
+     */
+    public void begin(BinairoGrid grid) {
+        total = 0;
+        size = grid.getSize();
+        cells = new byte[size * size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                cells[r * size + c] = (byte) grid.getValue(r, c);
+            }
+        }
+    }
+
+    public void record(int kind, int r, int c, int val, int depth, int selection, boolean lcv) {
+        events[(int) (total++ & mask)] = kind
+                | (long) selection << 3
+                | (lcv ? 1L : 0L) << 6
+                | (long) val << 7
+                | (long) r << 8
+                | (long) c << 24
+                | (long) depth << 40;
+        if (kind == ASSIGN) cells[r * size + c] = (byte) val;
+        else if (kind == BACKTRACK) cells[r * size + c] = (byte) BinairoGrid.EMPTY;
+    }
+
+    public int getGridSize() { return size; }
+
+    /**
+     * @return Le nombre d'événements conservés (au plus la capacité).
+     */
+    public int size() { return (int) Math.min(total, events.length); }
+
+    public long getTotalEvents() { return total; }
+
+    /**
+     * @return Le nombre d'événements les plus anciens écrasés faute de place.
+     */
+    public long getDroppedEvents() { return total - size(); }
+
+    // Accès aux événements conservés : i = 0 pour le plus ancien, size() - 1 pour le plus récent
+
+    private long event(int i) { return events[(int) ((total - size() + i) & mask)]; }
+
+    public int getKind(int i) { return (int) (event(i) & 7); }
+    public int getSelection(int i) { return (int) (event(i) >>> 3 & 7); }
+    public boolean isLcv(int i) { return (event(i) >>> 6 & 1) != 0; }
+    public int getValue(int i) { return (int) (event(i) >>> 7 & 1); }
+    public int getRow(int i) { return (int) (event(i) >>> 8 & 0xFFFF); }
+    public int getCol(int i) { return (int) (event(i) >>> 24 & 0xFFFF); }
+    public int getDepth(int i) { return (int) (event(i) >>> 40); }
+
+    /**
+     * @return La grille telle qu'elle était juste avant le plus ancien événement conservé.
+     */
+    public BinairoGrid getStartGrid() {
+        byte[] start = cells.clone();
+        for (int i = size() - 1; i >= 0; i--) {
+            int kind = getKind(i);
+            int cell = getRow(i) * size + getCol(i);
+            if (kind == ASSIGN) start[cell] = (byte) BinairoGrid.EMPTY;
+            else if (kind == BACKTRACK) start[cell] = (byte) getValue(i);
+        }
+        BinairoGrid grid = new BinairoGrid(size);
+        for (int cell = 0; cell < start.length; cell++) {
+            grid.setValue(cell / size, cell % size, start[cell]);
+        }
+        return grid;
+    }
+
+    /**
+     * Applique (forward = true) ou annule l'événement i sur la grille ; les réductions de domaine n'ont pas d'effet.
+     */
+    public void apply(int i, BinairoGrid grid, boolean forward) {
+        int kind = getKind(i);
+        if (kind == ASSIGN) {
+            grid.setValue(getRow(i), getCol(i), forward ? getValue(i) : BinairoGrid.EMPTY);
+        } else if (kind == BACKTRACK) {
+            grid.setValue(getRow(i), getCol(i), forward ? BinairoGrid.EMPTY : getValue(i));
+        }
+    }
+
+    /**
+     * @return La description lisible de l'événement i (cases numérotées à partir de 1).
+     */
+    public String describe(int i) {
+        String cell = "(" + (getRow(i) + 1) + "," + (getCol(i) + 1) + ")";
+        String prefix = "[prof. " + getDepth(i) + "] ";
+        switch (getKind(i)) {
+            case ASSIGN:
+                String choice;
+                switch (getSelection(i)) {
+                    case BY_MRV: choice = "MVR"; break;
+                    case BY_DEGREE: choice = "Degré"; break;
+                    default: choice = "ordre"; break;
+                }
+                return prefix + "Affectation " + cell + " = " + getValue(i)
+                        + " (variable : " + choice + ", valeur : " + (isLcv(i) ? "LCV" : "ordre") + ")";
+            case PRUNE:
+                return prefix + "FC : " + getValue(i) + " retiré du domaine de " + cell;
+            case BACKTRACK:
+                return prefix + "Retour arrière sur " + cell + " = " + getValue(i);
+            default:
+                return prefix + "Solution trouvée";
+        }
+    }
+}
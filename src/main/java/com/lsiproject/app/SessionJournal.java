@@ -0,0 +1,327 @@
+package com.lsiproject.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal de partie manuelle (.bnj) : une photo de la grille suivie des coups joués, ajoutés en fin de fichier.
+ * Chaque coup coûte un enregistrement de taille fixe (delta compacté de MoveHistory) : la sauvegarde continue
+ * d'une partie ne réécrit jamais la grille. Les enregistrements sont écrits par groupes, synchronisés sur disque
+ * au plus toutes les fsyncIntervalMillis (une minuterie en tâche de fond écrit et synchronise ceux qui attendent
+ * encore quand la partie s'interrompt), et le journal est compacté (nouvelle photo, enregistrements retirés)
+ * lorsqu'il en contient trop. La grille est restaurée en rejouant les enregistrements sur la photo.
+ *
+ * Structure (gros-boutiste) :
+ *   magic "BNJR" (4 octets) | version (1) | longueur L de la photo (4) | photo au format GridFile (L octets)
+ *   | enregistrements de 6 octets : type (1) | delta MoveHistory (4) | contrôle (1).
+ * Un enregistrement incomplet ou invalide (écriture interrompue) termine le journal : il est ignoré à la relecture
+ * et écrasé par l'enregistrement suivant.
+ */
+public class SessionJournal implements AutoCloseable {
+
+    public static final String EXTENSION = ".bnj";
+    public static final int MAGIC = 0x424E4A52; // "BNJR"
+    public static final int VERSION = 1;
+
+    public static final int RECORD_BYTES = 6;
+    public static final int MOVE = 1; // Coup joué : la case prend newValueOf(delta)
+    public static final int UNDO = 2; // Coup défait : la case reprend oldValueOf(delta)
+    public static final int REDO = 3; // Coup refait : la case reprend newValueOf(delta)
+
+    public static final int DEFAULT_GROUP_RECORDS = 8;
+    public static final long DEFAULT_FSYNC_MILLIS = 2000;
+    public static final int DEFAULT_COMPACT_RECORDS = 4096;
+
+    private static final int HEADER_BYTES = 9;
+
+    // Minuterie commune à tous les journaux (thread démon : n'empêche pas la JVM de s'arrêter)
+    private static final ScheduledExecutorService FLUSH_TIMER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "binairo-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path file;
+    private FileChannel channel;
+    private final int size;
+    private final byte[] cells; // Grille courante (photo + enregistrements), pour vérifier et compacter
+
+    private ByteBuffer pending = ByteBuffer.allocate(DEFAULT_GROUP_RECORDS * RECORD_BYTES);
+    private long fsyncIntervalNanos = DEFAULT_FSYNC_MILLIS * 1_000_000L;
+    private long lastForceNanos = System.nanoTime();
+    private boolean unforced;
+    private int compactRecords = DEFAULT_COMPACT_RECORDS;
+    private int recordCount; // Enregistrements depuis la photo (écrits ou en attente)
+    private ScheduledFuture<?> flushTask;
+
+    private SessionJournal(Path file, FileChannel channel, BinairoGrid grid, int recordCount) {
+        this.file = file;
+        this.channel = channel;
+        this.size = grid.getSize();
+        this.cells = new byte[size * size];
+        for (int i = 0; i < cells.length; i++) cells[i] = (byte) grid.getValue(i / size, i % size);
+        this.recordCount = recordCount;
+        scheduleFlush();
+    }
+
+    /**
+     * Crée un journal dont la photo est la grille donnée (remplace un fichier existant).
+     */
+    public static SessionJournal create(Path file, BinairoGrid grid) throws IOException {
+        writeSnapshot(file, grid);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new SessionJournal(file, channel, grid, 0);
+    }
+
+    /**
+     * Rouvre un journal pour continuer la partie : les enregistrements valides sont rejoués,
+     * une fin incomplète ou invalide est supprimée.
+     */
+    public static SessionJournal resume(Path file) throws IOException {
+        Replay replay = readJournal(file);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(replay.validBytes);
+            channel.position(replay.validBytes);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new SessionJournal(file, channel, replay.grid, replay.records);
+    }
+
+    /**
+     * @return La grille obtenue en rejouant le journal.
+     * @throws IOException Si l'en-tête ou la photo sont illisibles (les enregistrements invalides sont ignorés).
+     */
+    public static BinairoGrid replay(Path file) throws IOException {
+        return readJournal(file).grid;
+    }
+
+    // --- Réglages ---
+
+    /**
+     * @param records Nombre d'enregistrements regroupés en une seule écriture (1 : écriture à chaque coup).
+     */
+    public synchronized void setGroupSize(int records) {
+        flush();
+        pending = ByteBuffer.allocate(Math.max(1, records) * RECORD_BYTES);
+    }
+
+    /**
+     * @param millis Intervalle minimal entre deux synchronisations sur disque (0 : à chaque écriture).
+     */
+    public synchronized void setFsyncInterval(long millis) {
+        this.fsyncIntervalNanos = Math.max(0, millis) * 1_000_000L;
+        scheduleFlush();
+    }
+
+    /**
+     * @param records Nombre d'enregistrements au-delà duquel le journal est compacté.
+     */
+    public synchronized void setCompactionThreshold(int records) { this.compactRecords = Math.max(1, records); }
+
+    public Path getFile() { return file; }
+
+    /**
+     * @return Le nombre d'enregistrements depuis la dernière photo.
+     */
+    public synchronized int getRecordCount() { return recordCount; }
+
+
+    /**
+     * @return Une copie de la grille courante du journal.
+     */
+    public synchronized BinairoGrid getGrid() {
+        BinairoGrid grid = new BinairoGrid(size);
+        for (int i = 0; i < cells.length; i++) grid.setValue(i / size, i % size, cells[i]);
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+
+    // --- Ajout ---
+
+    public void recordMove(int delta) { append(MOVE, delta); }
+    public void recordUndo(int delta) { append(UNDO, delta); }
+    public void recordRedo(int delta) { append(REDO, delta); }
+
+    private synchronized void append(int type, int delta) {
+        if (channel == null) return;
+        int cell = MoveHistory.cellOf(delta);
+        cells[cell] = (byte) (type == UNDO ? MoveHistory.oldValueOf(delta) : MoveHistory.newValueOf(delta));
+        pending.put((byte) type).putInt(delta).put(check(type, delta));
+        recordCount++;
+        // Groupe complet, ou intervalle de synchronisation écoulé : les coups en attente ne restent pas en mémoire
+        if (!pending.hasRemaining() || System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) flush();
+        if (recordCount >= compactRecords) compact();
+    }
+
+    /**
+     * Écrit les enregistrements en attente ; la synchronisation sur disque n'a lieu que si l'intervalle est écoulé.
+     */
+    public synchronized void flush() {
+        if (channel == null || pending.position() == 0) return;
+        pending.flip();
+        try {
+            while (pending.hasRemaining()) channel.write(pending);
+            unforced = true;
+            if (System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) force();
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du journal de partie : " + e.getMessage());
+        }
+        pending.clear();
+    }
+
+    /**
+     * Écrit et synchronise sur disque tous les enregistrements (sauvegarde explicite, fin de partie).
+     */
+    public synchronized void sync() {
+        flush();
+        try {
+            if (channel != null && unforced) force();
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du journal de partie : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remplace le journal par une photo de la grille courante, sans enregistrement
+     * (fichier temporaire synchronisé puis remplacement atomique).
+     */
+    public synchronized void compact() {
+        if (channel == null) return;
+        flush();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            writeSnapshot(temp, getGrid());
+        } catch (IOException e) {
+            // Le journal courant reste valide : le compactage sera retenté au prochain coup
+            System.err.println("Erreur de compactage du journal de partie : " + e.getMessage());
+            return;
+        }
+        try {
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            recordCount = 0;
+        } catch (IOException e) {
+            System.err.println("Erreur de compactage du journal de partie : " + e.getMessage());
+        }
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Journal de partie inaccessible : " + e.getMessage());
+            channel = null;
+        }
+    }
+
+    /**
+     * Synchronise puis ferme le journal.
+     */
+    @Override
+    public synchronized void close() {
+        if (channel == null) return;
+        if (flushTask != null) flushTask.cancel(false);
+        sync();
+        try {
+            channel.close();
+            channel = null;
+        } catch (IOException e) {
+            System.err.println("Erreur de fermeture du journal de partie : " + e.getMessage());
+        }
+    }
+
+    /**
+     * (Re)programme la minuterie : toutes les fsyncIntervalMillis, les coups encore en attente sont écrits
+     * et synchronisés (sans elle, ils resteraient en mémoire jusqu'au coup suivant).
+     */
+    private void scheduleFlush() {
+        if (flushTask != null) flushTask.cancel(false);
+        flushTask = null;
+        if (fsyncIntervalNanos == 0) return; // Chaque écriture est déjà synchronisée
+        flushTask = FLUSH_TIMER.scheduleWithFixedDelay(this::flushIfDue,
+                fsyncIntervalNanos, fsyncIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void flushIfDue() {
+        if (channel != null && System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) sync();
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        unforced = false;
+        lastForceNanos = System.nanoTime();
+    }
+
+    // --- Format ---
+
+    private static byte check(int type, int delta) {
+        return (byte) (type ^ delta ^ delta >>> 8 ^ delta >>> 16 ^ delta >>> 24 ^ 0xA5);
+    }
+
+    private static void writeSnapshot(Path path, BinairoGrid grid) throws IOException {
+        ByteBuffer snapshot = GridFile.encode(grid, false);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).put((byte) VERSION).putInt(snapshot.remaining());
+        header.flip();
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) out.write(header);
+            while (snapshot.hasRemaining()) out.write(snapshot);
+            out.force(true);
+        }
+    }
+
+    private static final class Replay {
+        final BinairoGrid grid;
+        final int records;
+        final long validBytes;
+
+        Replay(BinairoGrid grid, int records, long validBytes) {
+            this.grid = grid;
+            this.records = records;
+            this.validBytes = validBytes;
+        }
+    }
+
+    private static Replay readJournal(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.BIG_ENDIAN);
+        if (data.length < HEADER_BYTES) throw new IOException("Journal tronqué.");
+        if (buffer.getInt() != MAGIC) throw new IOException("Ce n'est pas un journal de partie Binairo.");
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION) throw new IOException("Version de journal non supportée : " + version);
+        int snapshotLength = buffer.getInt();
+        if (snapshotLength < 0 || snapshotLength > data.length - HEADER_BYTES) throw new IOException("Journal tronqué.");
+        BinairoGrid grid = GridFile.decode(ByteBuffer.wrap(data, HEADER_BYTES, snapshotLength));
+
+        int n = grid.getSize();
+        int pos = HEADER_BYTES + snapshotLength;
+        int records = 0;
+        while (pos + RECORD_BYTES <= data.length) {
+            buffer.position(pos);
+            int type = buffer.get();
+            int delta = buffer.getInt();
+            if (buffer.get() != check(type, delta) || type < MOVE || type > REDO) break;
+            int cell = MoveHistory.cellOf(delta);
+            if (cell >= n * n) break;
+            int from = type == UNDO ? MoveHistory.newValueOf(delta) : MoveHistory.oldValueOf(delta);
+            int to = type == UNDO ? MoveHistory.oldValueOf(delta) : MoveHistory.newValueOf(delta);
+            if (grid.getValue(cell / n, cell % n) != from || to < BinairoGrid.EMPTY || to > BinairoGrid.ONE) break;
+            grid.setValue(cell / n, cell % n, to);
+            records++;
+            pos += RECORD_BYTES;
+        }
+        grid.resetDomainsForUnassignedCells();
+        return new Replay(grid, records, pos);
+    }
+}
@@ -0,0 +1,271 @@
+package com.lsiproject.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de solutions indexé par la forme canonique des indices.
+ * Les règles du Binairo sont invariantes par les 8 symétries du carré (rotations, miroirs, transpositions)
+ * et par l'échange des 0 et des 1 : une grille et ses 15 transformées partagent une seule entrée, la plus petite
+ * de leurs 16 écritures ('.' < '0' < '1', ligne par ligne). La solution est stockée dans ce repère canonique
+ * et ramenée dans le repère de la grille demandée par la transformation inverse.
+ *
+ * Éviction LRU bornée par la mémoire occupée. Avec un fichier, chaque ajout y est écrit (une ligne
+ * « indices;solution » en repère canonique) et le fichier est relu, puis compacté, à l'ouverture.
+ */
+public class SolutionCache {
+
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+    private static final int TRANSFORMS = 8;
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long maxBytes;
+    private long usedBytes;
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Path file;
+    private Writer appender;
+    private long hits;
+    private long misses;
+
+    public SolutionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.file = null;
+    }
+
+    /**
+     * @param file Fichier de persistance (créé s'il n'existe pas).
+     */
+    public SolutionCache(long maxBytes, Path file) {
+        this.maxBytes = maxBytes;
+        this.file = file;
+        load();
+    }
+
+    /**
+     * @return La solution en cache de la grille (ou d'une de ses transformées), ou null.
+     */
+    public synchronized BinairoGrid lookup(BinairoGrid puzzle) {
+        Canonical canonical = canonicalize(puzzle);
+        String solution = entries.get(canonical.key);
+        if (solution == null) {
+            misses++;
+            return null;
+        }
+        // Repère canonique -> repère de la grille : S(r, c) = S'(t(r, c)) ^ complément
+        int n = puzzle.getSize();
+        BinairoGrid grid = new BinairoGrid(n);
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int val = solution.charAt(target(canonical.transform, n, r, c)) - '0';
+                grid.setValue(r, c, canonical.complement ? 1 - val : val);
+                int clue = puzzle.getValue(r, c);
+                if (clue != BinairoGrid.EMPTY && clue != grid.getValue(r, c)) return discard(canonical.key);
+            }
+        }
+        if (!grid.isCompletelyValid()) return discard(canonical.key);
+        hits++;
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+
+    /**
+     * Entrée incohérente avec la grille demandée (fichier modifié ou corrompu) : retirée, jamais servie.
+     */
+    private BinairoGrid discard(String key) {
+        usedBytes -= entryBytes(key, entries.remove(key));
+        misses++;
+        return null;
+    }
+
+    /**
+     * Enregistre la solution d'une grille (dans le repère canonique de ses indices).
+     */
+    public synchronized void put(BinairoGrid puzzle, BinairoGrid solution) {
+        Canonical canonical = canonicalize(puzzle);
+        if (entries.containsKey(canonical.key)) return;
+        int n = puzzle.getSize();
+        char[] chars = new char[n * n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int val = solution.getValue(r, c);
+                chars[target(canonical.transform, n, r, c)] = (char) ('0' + (canonical.complement ? 1 - val : val));
+            }
+        }
+        String canonicalSolution = new String(chars);
+        insert(canonical.key, canonicalSolution);
+        append(canonical.key, canonicalSolution);
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getUsedBytes() { return usedBytes; }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    private void insert(String key, String solution) {
+        String previous = entries.put(key, solution);
+        if (previous != null) usedBytes -= entryBytes(key, previous);
+        usedBytes += entryBytes(key, solution);
+        // Éviction des entrées les moins récemment utilisées
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, String> entry = eldest.next();
+            usedBytes -= entryBytes(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long entryBytes(String key, String solution) {
+        return ENTRY_OVERHEAD_BYTES + 2L * (key.length() + solution.length());
+    }
+
+    // --- Forme canonique ---
+
+    private static final class Canonical {
+        final String key;
+        final int transform;
+        final boolean complement;
+
+        Canonical(String key, int transform, boolean complement) {
+            this.key = key;
+            this.transform = transform;
+            this.complement = complement;
+        }
+    }
+
+    /**
+     * Position de la case (r, c) après la symétrie t (indice ligne par ligne dans la grille transformée).
+     */
+    static int target(int t, int n, int r, int c) {
+        int m = n - 1;
+        switch (t) {
+            case 0: return r * n + c;             // Identité
+            case 1: return c * n + (m - r);       // Rotation 90°
+            case 2: return (m - r) * n + (m - c); // Rotation 180°
+            case 3: return (m - c) * n + r;       // Rotation 270°
+            case 4: return c * n + r;             // Transposition
+            case 5: return r * n + (m - c);       // Miroir gauche-droite
+            case 6: return (m - r) * n + c;       // Miroir haut-bas
+            default: return (m - c) * n + (m - r); // Anti-transposition
+        }
+    }
+
+    static Canonical canonicalize(BinairoGrid puzzle) {
+        int n = puzzle.getSize();
+        char[] best = null;
+        int bestTransform = 0;
+        boolean bestComplement = false;
+        char[] candidate = new char[n * n];
+        for (int t = 0; t < TRANSFORMS; t++) {
+            for (int k = 0; k < 2; k++) {
+                boolean complement = k == 1;
+                for (int r = 0; r < n; r++) {
+                    for (int c = 0; c < n; c++) {
+                        int val = puzzle.getValue(r, c);
+                        char ch = val == BinairoGrid.EMPTY ? '.' : (char) ('0' + (complement ? 1 - val : val));
+                        candidate[target(t, n, r, c)] = ch;
+                    }
+                }
+                if (best == null || compare(candidate, best) < 0) {
+                    best = candidate.clone();
+                    bestTransform = t;
+                    bestComplement = complement;
+                }
+            }
+        }
+        return new Canonical(new String(best), bestTransform, bestComplement);
+    }
+
+    private static int compare(char[] a, char[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) return a[i] - b[i];
+        }
+        return 0;
+    }
+
+    // --- Persistance ---
+
+    private void load() {
+        int lines = 0;
+        if (Files.exists(file)) {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    lines++;
+                    int separator = line.indexOf(';');
+                    if (separator < 0) continue;
+                    String key = line.substring(0, separator);
+                    String solution = line.substring(separator + 1);
+                    if (isWellFormed(key, solution)) insert(key, solution); // Sinon ignorée, retirée à la réécriture
+                }
+            } catch (IOException e) {
+                System.err.println("Cache de solutions illisible : " + e.getMessage());
+            }
+        }
+        // Entrées évincées, en double ou mal formées : le fichier est réécrit avec le contenu courant
+        if (lines > entries.size()) rewrite();
+    }
+
+    /**
+     * Une entrée valide : N x N cases (N >= 2), indices en '.', '0' ou '1', solution en '0' ou '1'
+     * qui reprend chaque indice.
+     */
+    private static boolean isWellFormed(String key, String solution) {
+        int n = (int) Math.round(Math.sqrt(key.length()));
+        if (n < 2 || n * n != key.length() || solution.length() != key.length()) return false;
+        for (int i = 0; i < key.length(); i++) {
+            char clue = key.charAt(i);
+            char value = solution.charAt(i);
+            if (value != '0' && value != '1') return false;
+            if (clue != '.' && clue != value) return false;
+        }
+        return true;
+    }
+
+    private void rewrite() {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.US_ASCII)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                out.write(entry.getKey());
+                out.write(';');
+                out.write(entry.getValue());
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du cache de solutions : " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du cache de solutions : " + e.getMessage());
+        }
+    }
+
+    private void append(String key, String solution) {
+        if (file == null) return;
+        try {
+            if (appender == null) {
+                if (file.getParent() != null) Files.createDirectories(file.getParent());
+                appender = Files.newBufferedWriter(file, StandardCharsets.US_ASCII,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            appender.write(key);
+            appender.write(';');
+            appender.write(solution);
+            appender.write('\n');
+            appender.flush();
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du cache de solutions : " + e.getMessage());
+        }
+    }
+}
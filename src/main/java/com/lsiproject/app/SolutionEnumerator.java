@@ -0,0 +1,135 @@
+package com.lsiproject.app;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Énumération paresseuse de toutes les solutions d'une grille.
+ * Chaque solution est produite à la demande par la recherche itérative (BitboardSearch) :
+ * aucune liste de solutions n'est construite, la mémoire utilisée reste constante.
+ *
+ * Format compact : une solution occupe ceil(N*N / 8) octets, cellules en ordre ligne par ligne,
+ * la cellule i étant le bit (i % 8) de l'octet i / 8 (1 = ONE, 0 = ZERO).
+ */
+public class SolutionEnumerator implements Iterator<BinairoGrid> {
+
+    private final BitboardSearch search;
+    private final int size;
+    private boolean ready; // Une solution est prête dans l'état de la recherche
+    private boolean done;
+    private long produced;
+
+    public SolutionEnumerator(BinairoGrid grid) {
+        this.size = grid.getSize();
+        this.search = new BitboardSearch(BitboardState.fromGrid(grid));
+    }
+
+    /**
+     * @return Un flux paresseux des solutions de la grille.
+     */
+    public static Stream<BinairoGrid> solutions(BinairoGrid grid) {
+        return new SolutionEnumerator(grid).stream();
+    }
+
+    public void setLimits(SearchLimits limits) { search.setLimits(limits); }
+
+    public long getProducedCount() { return produced; }
+    public long getNodes() { return search.getNodes(); }
+
+    /**
+     * @return true si l'énumération a été interrompue par les limites de recherche.
+     */
+    public boolean wasStopped() { return search.wasStopped(); }
+
+    @Override
+    public boolean hasNext() {
+        if (!ready && !done) {
+            if (search.nextSolution()) ready = true;
+            else done = true;
+        }
+        return ready;
+    }
+
+    @Override
+    public BinairoGrid next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        produced++;
+        return search.getState().toGrid();
+    }
+
+    public Stream<BinairoGrid> stream() {
+        Spliterator<BinairoGrid> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    // --- Format compact ---
+
+    public static int packedSolutionBytes(int size) {
+        return (size * size + 7) / 8;
+    }
+
+    /**
+     * Écrit la prochaine solution au format compact dans buffer (sans créer de BinairoGrid).
+     * @return false s'il n'y a plus de solution.
+     */
+    public boolean nextPacked(byte[] buffer) {
+        if (!hasNext()) return false;
+        ready = false;
+        produced++;
+        BitboardState state = search.getState();
+        int bytes = packedSolutionBytes(size);
+        for (int i = 0; i < bytes; i++) buffer[i] = 0;
+        for (int r = 0; r < size; r++) {
+            long ones = state.getRowOnes(r);
+            while (ones != 0) {
+                int c = Long.numberOfTrailingZeros(ones);
+                ones &= ones - 1;
+                int cell = r * size + c;
+                buffer[cell >>> 3] |= (byte) (1 << (cell & 7));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Écrit les solutions restantes au format compact dans le flux, en mémoire constante.
+     * @param limit Nombre maximal de solutions à écrire (<= 0 : toutes).
+     * @return Le nombre de solutions écrites.
+     */
+    public long writePacked(OutputStream out, long limit) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        byte[] buffer = new byte[packedSolutionBytes(size)];
+        long written = 0;
+        while ((limit <= 0 || written < limit) && nextPacked(buffer)) {
+            buffered.write(buffer);
+            written++;
+        }
+        buffered.flush();
+        return written;
+    }
+
+    /**
+     * Reconstruit une grille à partir de sa forme compacte.
+     */
+    public static BinairoGrid unpack(byte[] data, int offset, int size) {
+        BinairoGrid grid = new BinairoGrid(size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int cell = r * size + c;
+                int bit = (data[offset + (cell >>> 3)] >>> (cell & 7)) & 1;
+                grid.setValue(r, c, bit);
+            }
+        }
+        grid.resetDomainsForUnassignedCells();
+        return grid;
+    }
+}
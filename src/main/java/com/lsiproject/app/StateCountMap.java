@@ -0,0 +1,119 @@
+package com.lsiproject.app;
+
+import java.util.Arrays;
+
+/**
+ * Table de hachage à adressage ouvert associant un état (clé de largeur fixe en longs) à un compteur.
+ * Tout est stocké dans des tableaux primitifs : aucune allocation par état.
+ * Les compteurs saturent à Long.MAX_VALUE au lieu de déborder.
+ */
+public class StateCountMap {
+
+    private final int width;
+    private long[] keys;
+    private long[] counts;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private boolean saturated;
+
+    public StateCountMap(int width, int expectedSize) {
+        this.width = width;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity * width];
+        this.counts = new long[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return counts.length; }
+    public boolean isUsed(int slot) { return used[slot]; }
+    public long countAt(int slot) { return counts[slot]; }
+    public long keyAt(int slot, int part) { return keys[slot * width + part]; }
+
+    /**
+     * @return true si au moins un compteur a saturé (résultat tronqué à Long.MAX_VALUE).
+     */
+    public boolean isSaturated() { return saturated; }
+
+    /**
+     * Ajoute count au compteur de l'état key (créé à 0 s'il n'existe pas).
+     */
+    public void add(long[] key, long count) {
+        if ((size + 1) * 10L > counts.length * 7L) grow();
+        int slot = find(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            System.arraycopy(key, 0, keys, slot * width, width);
+            size++;
+        }
+        long sum = counts[slot] + count;
+        if (sum < 0) {
+            sum = Long.MAX_VALUE;
+            saturated = true;
+        }
+        counts[slot] = sum;
+    }
+
+    /**
+     * @return Le compteur associé à key, ou 0.
+     */
+    public long get(long[] key) {
+        int slot = find(key);
+        return used[slot] ? counts[slot] : 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    private int find(long[] key) {
+        int slot = hash(key) & mask;
+        while (used[slot] && !matches(slot, key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int slot, long[] key) {
+        int base = slot * width;
+        for (int i = 0; i < width; i++) {
+            if (keys[base + i] != key[i]) return false;
+        }
+        return true;
+    }
+
+    private int hash(long[] key) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < width; i++) {
+            h = (h ^ key[i]) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        boolean[] oldUsed = used;
+        allocate(oldCounts.length * 2);
+        long[] key = new long[width];
+        for (int slot = 0; slot < oldCounts.length; slot++) {
+            if (!oldUsed[slot]) continue;
+            System.arraycopy(oldKeys, slot * width, key, 0, width);
+            int target = find(key);
+            used[target] = true;
+            System.arraycopy(key, 0, keys, target * width, width);
+            counts[target] = oldCounts[slot];
+            size++;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.lsiproject.app;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Relecture pas à pas d'une trace de recherche : lecture à vitesse réglable, retour et avance case par case,
+ * et curseur pour se déplacer librement dans la trace. Chaque déplacement n'applique ou n'annule
+ * que les événements parcourus sur une seule grille (aucune copie).
+ */
+public class TraceReplayDialog extends JDialog {
+
+    private static final int TIMER_DELAY_MS = 20;
+
+    private final SearchTrace trace;
+    private final BinairoGrid grid;
+    private final GridCanvas canvas = new GridCanvas();
+    private final JSlider positionSlider;
+    private final JSlider speedSlider;
+    private final JLabel eventLabel = new JLabel(" ");
+    private final JButton playButton = new JButton("Lecture");
+    private final Timer timer;
+    private int position; // Nombre d'événements appliqués à la grille
+
+    /**
+     * @param initial Grille de départ de la résolution (ses cases remplies sont affichées comme indices).
+     */
+    public TraceReplayDialog(Frame owner, SearchTrace trace, BinairoGrid initial) {
+        super(owner, "Relecture de la recherche", false);
+        this.trace = trace;
+        this.grid = trace.getStartGrid();
+
+        int n = grid.getSize();
+        boolean[][] clues = new boolean[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                clues[r][c] = initial.getValue(r, c) != BinairoGrid.EMPTY;
+            }
+        }
+        canvas.setGrid(grid, clues, null, false);
+        JScrollPane scroll = new JScrollPane(canvas);
+        scroll.setPreferredSize(new Dimension(480, 480));
+
+        positionSlider = new JSlider(0, trace.size(), 0);
+        positionSlider.addChangeListener(e -> seek(positionSlider.getValue()));
+        speedSlider = new JSlider(1, 1000, 20);
+
+        timer = new Timer(TIMER_DELAY_MS, e -> {
+            // La vitesse est exprimée en événements par seconde
+            int steps = Math.max(1, speedSlider.getValue() * TIMER_DELAY_MS / 1000);
+            seek(position + steps);
+            if (position >= trace.size()) stop();
+        });
+
+        JButton backButton = new JButton("◀");
+        backButton.addActionListener(e -> { stop(); seek(position - 1); });
+        JButton forwardButton = new JButton("▶");
+        forwardButton.addActionListener(e -> { stop(); seek(position + 1); });
+        playButton.addActionListener(e -> {
+            if (timer.isRunning()) stop();
+            else start();
+        });
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        controls.add(backButton);
+        controls.add(playButton);
+        controls.add(forwardButton);
+        controls.add(new JLabel("Vitesse (év./s) :"));
+        controls.add(speedSlider);
+
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(positionSlider, BorderLayout.NORTH);
+        south.add(eventLabel, BorderLayout.CENTER);
+        south.add(controls, BorderLayout.SOUTH);
+
+        String header = String.format("%,d événements enregistrés", trace.getTotalEvents());
+        if (trace.getDroppedEvents() > 0) {
+            header += String.format(" (%,d plus anciens écrasés : la relecture commence en cours de recherche)",
+                    trace.getDroppedEvents());
+        }
+
+        setLayout(new BorderLayout(5, 5));
+        add(new JLabel(header, SwingConstants.CENTER), BorderLayout.NORTH);
+        add(scroll, BorderLayout.CENTER);
+        add(south, BorderLayout.SOUTH);
+        pack();
+        canvas.fitTo(scroll.getViewport().getWidth(), scroll.getViewport().getHeight());
+        setLocationRelativeTo(owner);
+        updateEventLabel();
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+        super.dispose();
+    }
+
+    private void start() {
+        if (position >= trace.size()) seek(0);
+        timer.start();
+        playButton.setText("Pause");
+    }
+
+    private void stop() {
+        timer.stop();
+        playButton.setText("Lecture");
+    }
+
+    /**
+     * Place la relecture juste après l'événement target - 1 en appliquant ou annulant les événements intermédiaires.
+     */
+    private void seek(int target) {
+        target = Math.max(0, Math.min(trace.size(), target));
+        if (target == position) return;
+        while (position < target) trace.apply(position++, grid, true);
+        while (position > target) trace.apply(--position, grid, false);
+        canvas.repaint();
+        if (positionSlider.getValue() != position) positionSlider.setValue(position);
+        updateEventLabel();
+    }
+
+    private void updateEventLabel() {
+        if (position == 0) {
+            canvas.setHighlight(-1, -1);
+            eventLabel.setText("Début de la trace (0 / " + trace.size() + ")");
+            return;
+        }
+        int i = position - 1;
+        if (trace.getKind(i) == SearchTrace.SOLUTION) canvas.setHighlight(-1, -1);
+        else canvas.setHighlight(trace.getRow(i), trace.getCol(i));
+        eventLabel.setText(position + " / " + trace.size() + " : " + trace.describe(i));
+    }
+}
@@ -0,0 +1,127 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BitboardSearchTest {
+
+    @ParameterizedTest
+    @CsvSource({"4, 72", "6, 4140", "8, 4111116"})
+    void countOfEmptyGrid(int size, long expected) {
+        assertEquals(expected, new BitboardSearch(new BitboardState(size)).countSolutions(0));
+    }
+
+    /**
+     * Brisure de symétries : chaque solution compte pour son orbite, le total ne change pas.
+     */
+    @ParameterizedTest
+    @CsvSource({"4, 72", "6, 4140", "8, 4111116"})
+    void symmetryBreakingKeepsCount(int size, long expected) {
+        BitboardSearch search = new BitboardSearch(new BitboardState(size));
+        search.setSymmetryBreaking(true);
+        assertEquals(16, search.getSymmetryGroupSize());
+        assertEquals(expected, search.countSolutions(0));
+    }
+
+    @Test
+    void symmetryBreakingVisitsFewerNodes() {
+        BitboardSearch plain = new BitboardSearch(new BitboardState(6));
+        plain.countSolutions(0);
+        BitboardSearch broken = new BitboardSearch(new BitboardState(6));
+        broken.setSymmetryBreaking(true);
+        broken.countSolutions(0);
+        assertTrue(broken.getNodes() < plain.getNodes(), broken.getNodes() + " >= " + plain.getNodes());
+    }
+
+    /**
+     * Budgets inférieurs à l'intervalle de lecture de l'horloge : l'arrêt tombe exactement sur le budget.
+     */
+    @ParameterizedTest
+    @ValueSource(longs = {1, 100, 1000, 5000})
+    void smallNodeBudgetStopsExactly(long budget) {
+        BitboardSearch search = new BitboardSearch(new BitboardState(10));
+        SearchLimits limits = new SearchLimits(0, budget);
+        search.setLimits(limits);
+        search.countSolutions(0);
+        assertTrue(search.wasStopped());
+        assertEquals(GridResolution.Status.NODE_LIMIT, limits.getStopReason());
+        assertEquals(budget, search.getNodes());
+    }
+
+    @Test
+    void cancelledLimitsStopBeforeSearching() {
+        BitboardSearch search = new BitboardSearch(new BitboardState(10));
+        SearchLimits limits = SearchLimits.unlimited();
+        limits.cancel();
+        search.setLimits(limits);
+        assertFalse(search.nextSolution());
+        assertTrue(search.wasStopped());
+        assertEquals(GridResolution.Status.CANCELLED, limits.getStopReason());
+        assertEquals(1, search.getNodes());
+    }
+
+    @Test
+    void fullGridHasSingleSolution() {
+        BitboardSearch first = new BitboardSearch(new BitboardState(16));
+        assertTrue(first.nextSolution());
+        BinairoGrid full = first.getState().toGrid();
+        assertEquals(1, new BitboardSearch(BitboardState.fromGrid(full)).countSolutions(0));
+    }
+
+    /**
+     * Comptage découpé en sessions par un budget de nœuds, chaque session reprenant l'instantané de la précédente.
+     */
+    @ParameterizedTest
+    @CsvSource({"6, false, 2000, 4140", "8, true, 100000, 4111116"})
+    void resumedCountMatchesFullCount(int size, boolean symmetry, long nodeBudget, long expected) throws IOException {
+        BitboardSearch search = new BitboardSearch(new BitboardState(size));
+        search.setSymmetryBreaking(symmetry);
+        int sessions = 0;
+        while (true) {
+            search.setLimits(new SearchLimits(0, nodeBudget));
+            search.countSolutions(0);
+            sessions++;
+            if (!search.wasStopped()) break;
+            search = BitboardSearch.fromCheckpoint(search.toCheckpoint());
+        }
+        assertTrue(sessions > 1);
+        assertEquals(expected, search.getSolutionCount());
+    }
+
+    /**
+     * Reprise par fichier dans BinairoSolver : un test d'unicité intercalé ne touche pas au point de reprise.
+     */
+    @Test
+    void solverResumesCountFromCheckpointFile(@TempDir Path directory) {
+        Path file = directory.resolve("comptage.bnck");
+        BinairoSolver solver = new BinairoSolver();
+        solver.setCheckpoint(file, 60_000);
+        GridResolution result;
+        int sessions = 0;
+        do {
+            solver.setSearchLimits(new SearchLimits(0, 5_000));
+            result = solver.countSolutions(new BinairoGrid(6), 0);
+            sessions++;
+            if (result.isCountCapped()) {
+                assertTrue(Files.exists(file));
+                solver.setSearchLimits(SearchLimits.unlimited());
+                assertFalse(solver.checkUniqueness(new BinairoGrid(6)).isUnique());
+                assertTrue(Files.exists(file));
+            }
+        } while (result.isCountCapped() && sessions < 100);
+        assertTrue(sessions > 1);
+        assertEquals(4140, result.getSolutionCount());
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,54 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ConflictTrackerTest {
+
+    /**
+     * Coups aléatoires (poses, remplacements, effacements) : après chaque coup, le suivi incrémental
+     * doit coïncider avec un suivi reconstruit sur la grille, et getChangedCells avec la différence des deux états.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {4, 6, 7, 8})
+    void incrementalStateMatchesFreshTracker(int size) {
+        Random random = new Random(size);
+        BinairoGrid grid = new BinairoGrid(size);
+        ConflictTracker tracker = new ConflictTracker(grid);
+        boolean[] before = conflicts(tracker);
+
+        for (int move = 0; move < 5_000; move++) {
+            int r = random.nextInt(size);
+            int c = random.nextInt(size);
+            int val = random.nextInt(3) == 0 ? BinairoGrid.EMPTY : random.nextInt(2);
+            grid.setValue(r, c, val);
+            tracker.set(r, c, val);
+
+            ConflictTracker fresh = new ConflictTracker(grid);
+            boolean[] after = conflicts(tracker);
+            assertEquals(fresh.hasConflicts(), tracker.hasConflicts(), "coup " + move);
+            assertEquals(fresh.isSolved(), tracker.isSolved(), "coup " + move);
+            Set<Integer> expectedChanged = new HashSet<>();
+            for (int cell = 0; cell < size * size; cell++) {
+                assertEquals(fresh.isConflict(cell / size, cell % size), after[cell], "coup " + move + ", case " + cell);
+                if (after[cell] != before[cell] && cell != r * size + c) expectedChanged.add(cell);
+            }
+            assertEquals(expectedChanged, new HashSet<>(tracker.getChangedCells()), "coup " + move);
+            assertEquals(tracker.getChangedCells().size(), expectedChanged.size(), "doublon, coup " + move);
+            before = after;
+        }
+    }
+
+    private static boolean[] conflicts(ConflictTracker tracker) {
+        int size = tracker.getSize();
+        boolean[] conflicts = new boolean[size * size];
+        for (int cell = 0; cell < conflicts.length; cell++) conflicts[cell] = tracker.isConflict(cell / size, cell % size);
+        return conflicts;
+    }
+}
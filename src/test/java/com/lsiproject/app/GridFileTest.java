@@ -0,0 +1,80 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GridFileTest {
+
+    private static BinairoGrid puzzle() {
+        return new PuzzleGenerator(3).generate(10).getInitialGrid();
+    }
+
+    private static void assertSameGrid(BinairoGrid expected, BinairoGrid actual) {
+        int n = expected.getSize();
+        assertEquals(n, actual.getSize());
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                assertEquals(expected.getValue(r, c), actual.getValue(r, c), "case " + r + "," + c);
+                if (expected.getValue(r, c) == BinairoGrid.EMPTY) {
+                    assertEquals(expected.getDomains().get(r + "," + c), actual.getDomains().get(r + "," + c), "domaine " + r + "," + c);
+                }
+            }
+        }
+    }
+
+    @Test
+    void roundTripWithoutDomains(@TempDir Path directory) throws IOException {
+        BinairoGrid grid = puzzle();
+        Path file = directory.resolve("grille" + GridFile.EXTENSION);
+        GridFile.write(file, grid);
+        assertEquals(37, Files.size(file));
+        assertSameGrid(grid, GridFile.read(file));
+    }
+
+    @Test
+    void roundTripWithReducedDomains(@TempDir Path directory) throws IOException {
+        BinairoGrid grid = puzzle();
+        String empty = null;
+        for (int i = 0; i < 100 && empty == null; i++) {
+            if (grid.getValue(i / 10, i % 10) == BinairoGrid.EMPTY) empty = (i / 10) + "," + (i % 10);
+        }
+        grid.getDomains().get(empty).remove(BinairoGrid.ZERO);
+        Path file = directory.resolve("grille" + GridFile.EXTENSION);
+        GridFile.write(file, grid);
+        assertEquals(62, Files.size(file));
+        assertSameGrid(grid, GridFile.read(file));
+    }
+
+    /**
+     * Toute altération d'un octet (en-tête, cases ou CRC lui-même) est rejetée.
+     */
+    @Test
+    void corruptedByteIsRejected(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("grille" + GridFile.EXTENSION);
+        GridFile.write(file, puzzle());
+        byte[] original = Files.readAllBytes(file);
+        for (int i = 0; i < original.length; i++) {
+            byte[] corrupted = original.clone();
+            corrupted[i] ^= 0x10;
+            Files.write(file, corrupted);
+            assertThrows(IOException.class, () -> GridFile.read(file), "octet " + i);
+        }
+    }
+
+    @Test
+    void truncatedFileIsRejected(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("grille" + GridFile.EXTENSION);
+        GridFile.write(file, puzzle());
+        byte[] original = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(original, original.length - 1));
+        assertThrows(IOException.class, () -> GridFile.read(file));
+    }
+}
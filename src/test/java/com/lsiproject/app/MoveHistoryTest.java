@@ -0,0 +1,70 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MoveHistoryTest {
+
+    /**
+     * Toutes les combinaisons de valeurs, jusqu'à la plus grande case codable sur 28 bits (bit de signe compris).
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 99, 256 * 256 - 1, (1 << 28) - 1})
+    void packThenUnpack(int cell) {
+        for (int oldValue = BinairoGrid.EMPTY; oldValue <= BinairoGrid.ONE; oldValue++) {
+            for (int newValue = BinairoGrid.EMPTY; newValue <= BinairoGrid.ONE; newValue++) {
+                int delta = MoveHistory.pack(cell, oldValue, newValue);
+                assertEquals(cell, MoveHistory.cellOf(delta));
+                assertEquals(oldValue, MoveHistory.oldValueOf(delta));
+                assertEquals(newValue, MoveHistory.newValueOf(delta));
+            }
+        }
+    }
+
+    @Test
+    void undoAllThenRedoAllRestoresGrid() {
+        int cells = 64 * 64;
+        int[] grid = new int[cells];
+        Arrays.fill(grid, BinairoGrid.EMPTY);
+        MoveHistory history = new MoveHistory();
+        Random random = new Random(7);
+        for (int move = 0; move < 10_000; move++) {
+            int cell = random.nextInt(cells);
+            int value = random.nextInt(3) - 1;
+            if (grid[cell] == value) continue;
+            history.record(cell, grid[cell], value);
+            grid[cell] = value;
+        }
+        int[] end = grid.clone();
+
+        int delta;
+        while ((delta = history.undo()) >= 0) grid[MoveHistory.cellOf(delta)] = MoveHistory.oldValueOf(delta);
+        int[] empty = new int[cells];
+        Arrays.fill(empty, BinairoGrid.EMPTY);
+        assertArrayEquals(empty, grid);
+
+        while ((delta = history.redo()) >= 0) grid[MoveHistory.cellOf(delta)] = MoveHistory.newValueOf(delta);
+        assertArrayEquals(end, grid);
+    }
+
+    @Test
+    void recordDropsRedoableMoves() {
+        MoveHistory history = new MoveHistory();
+        history.record(0, BinairoGrid.EMPTY, BinairoGrid.ZERO);
+        history.record(1, BinairoGrid.EMPTY, BinairoGrid.ONE);
+        history.undo();
+        history.record(2, BinairoGrid.EMPTY, BinairoGrid.ONE);
+        assertFalse(history.canRedo());
+        assertEquals(2, MoveHistory.cellOf(history.undo()));
+        assertEquals(0, MoveHistory.cellOf(history.undo()));
+        assertEquals(-1, history.undo());
+    }
+}
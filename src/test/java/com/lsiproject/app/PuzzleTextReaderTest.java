@@ -0,0 +1,83 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PuzzleTextReaderTest {
+
+    /**
+     * Collection mêlant grilles nues, lignes de BulkGenerator, commentaires, lignes vides,
+     * fins de ligne CRLF, lignes mal formées et une dernière ligne sans saut de ligne.
+     */
+    private static String collection() {
+        Random random = new Random(11);
+        StringBuilder text = new StringBuilder("# collection de test\n\n");
+        for (int i = 0; i < 60; i++) {
+            int size = i % 3 == 0 ? 8 : 6;
+            StringBuilder cells = new StringBuilder();
+            for (int k = 0; k < size * size; k++) cells.append(".01".charAt(random.nextInt(3)));
+            if (i % 4 == 1) text.append(i).append(";42;FACILE;");
+            text.append(cells);
+            if (i % 7 == 3) text.append('x'); // Mal formée
+            text.append(i % 5 == 2 ? "\r\n" : "\n");
+        }
+        text.append("..........0.......................1.");
+        return text.toString();
+    }
+
+    private static List<String> readAll(PuzzleTextReader reader) {
+        List<String> grids = new ArrayList<>();
+        while (reader.next()) {
+            StringBuilder grid = new StringBuilder(reader.getLineNumber() + ":");
+            for (int r = 0; r < reader.getSize(); r++) {
+                for (int c = 0; c < reader.getSize(); c++) grid.append(reader.getValue(r, c) + 1);
+            }
+            grids.add(grid.toString());
+        }
+        grids.add("ignorées:" + reader.getSkippedLines());
+        return grids;
+    }
+
+    /**
+     * Fenêtres plus petites que quelques lignes : presque chaque grille chevauche une frontière de fenêtre,
+     * et la lecture du fichier doit rester identique à celle du texte en mémoire.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {120, 127, 200, 1000, 1 << 20})
+    void windowedFileMatchesInMemoryText(int windowBytes, @TempDir Path directory) throws IOException {
+        String text = collection();
+        Path file = directory.resolve("grilles.txt");
+        Files.writeString(file, text, StandardCharsets.US_ASCII);
+
+        List<String> expected = readAll(new PuzzleTextReader(text));
+        assertEquals(61 - 9 + 1, expected.size()); // 61 grilles dont 9 mal formées, plus le compteur
+        try (PuzzleTextReader reader = PuzzleTextReader.open(file, windowBytes)) {
+            assertEquals(expected, readAll(reader));
+        }
+    }
+
+    @Test
+    void lineLongerThanWindowStopsReading(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("grilles.txt");
+        Files.writeString(file, "0".repeat(36) + "\n" + ".".repeat(64) + "\n" + "1".repeat(36) + "\n", StandardCharsets.US_ASCII);
+        try (PuzzleTextReader reader = PuzzleTextReader.open(file, 50)) {
+            assertTrue(reader.next());
+            assertEquals(6, reader.getSize());
+            assertFalse(reader.next());
+        }
+    }
+}
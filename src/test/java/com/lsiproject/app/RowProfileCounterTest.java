@@ -0,0 +1,48 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RowProfileCounterTest {
+
+    private static BinairoGrid fullGrid(int size) {
+        BitboardSearch search = new BitboardSearch(new BitboardState(size));
+        assertTrue(search.nextSolution());
+        return search.getState().toGrid();
+    }
+
+    /**
+     * Tailles 15 et 16 : maxPerValue = 8, cas où l'ancien test des compteurs de colonnes empruntait d'un compteur à l'autre.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {14, 15, 16})
+    void fullGridHasOneRelaxedCompletion(int size) {
+        assertEquals(1, new RowProfileCounter().countRelaxed(fullGrid(size)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {14, 15, 16})
+    void relaxedCountBoundsBitboardCount(int size) {
+        BinairoGrid grid = fullGrid(size);
+        for (int r = 0; r < size; r += 2) {
+            grid.setValue(r, (r * 5) % size, BinairoGrid.EMPTY);
+            grid.setValue(r, (r * 5 + 3) % size, BinairoGrid.EMPTY);
+        }
+        grid.resetDomainsForUnassignedCells();
+
+        long exact = new BitboardSearch(BitboardState.fromGrid(grid)).countSolutions(0);
+        long relaxed = new RowProfileCounter().countRelaxed(grid);
+        assertTrue(exact >= 1);
+        assertTrue(relaxed >= exact, "relâché " + relaxed + " < exact " + exact);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"4, 72", "6, 4140", "8, 4111116"})
+    void exactCountOfEmptyGrid(int size, long expected) {
+        assertEquals(expected, new RowProfileCounter().countExact(new BinairoGrid(size)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SearchLimitsTest {
+
+    @Test
+    void nodeBudgetStopsAtBudget() {
+        SearchLimits limits = new SearchLimits(0, 100);
+        assertFalse(limits.shouldStop(99));
+        assertNull(limits.getStopReason());
+        assertTrue(limits.shouldStop(100));
+        assertEquals(GridResolution.Status.NODE_LIMIT, limits.getStopReason());
+    }
+
+    @Test
+    void deadlineStopsAfterTimeout() throws InterruptedException {
+        SearchLimits limits = new SearchLimits(20, 0);
+        assertFalse(limits.shouldStop(0));
+        Thread.sleep(40);
+        assertTrue(limits.shouldStop(0));
+        assertEquals(GridResolution.Status.TIMEOUT, limits.getStopReason());
+    }
+
+    @Test
+    void parentCancelStopsChild() {
+        SearchLimits parent = SearchLimits.unlimited();
+        SearchLimits child = parent.child(0, 0);
+        assertFalse(child.shouldStop(0));
+        parent.cancel();
+        assertTrue(child.shouldStop(0));
+        assertEquals(GridResolution.Status.CANCELLED, child.getStopReason());
+    }
+
+    @Test
+    void childCancelLeavesParentRunning() {
+        SearchLimits parent = SearchLimits.unlimited();
+        parent.child(0, 0).cancel();
+        assertFalse(parent.isCancelled());
+        assertFalse(parent.shouldStop(0));
+    }
+
+    /**
+     * Comptage d'une grille 10x10 vide (hors de portée) : l'échéance l'interrompt.
+     */
+    @Test
+    void deadlineInterruptsBitboardCount() {
+        BitboardSearch search = new BitboardSearch(new BitboardState(10));
+        SearchLimits limits = new SearchLimits(100, 0);
+        search.setLimits(limits);
+        long start = System.nanoTime();
+        search.countSolutions(0);
+        assertTrue(search.wasStopped());
+        assertEquals(GridResolution.Status.TIMEOUT, limits.getStopReason());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void serviceReportsCancelledSolve() throws Exception {
+        try (BinairoSolveService service = new BinairoSolveService(true, true, true, true, true, true)) {
+            SearchLimits limits = SearchLimits.unlimited();
+            limits.cancel();
+            GridResolution resolution = service.submit(new BinairoGrid(8), limits).get(10, TimeUnit.SECONDS);
+            assertEquals(GridResolution.Status.CANCELLED, resolution.getStatus());
+            assertTrue(resolution.isInterrupted());
+
+            GridResolution solved = service.submit(new BinairoGrid(8), 10_000, 0).get(10, TimeUnit.SECONDS);
+            assertEquals(GridResolution.Status.SOLVED, solved.getStatus());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SessionJournalTest {
+
+    private static void assertSameCells(BinairoGrid expected, BinairoGrid actual) {
+        int n = expected.getSize();
+        assertEquals(n, actual.getSize());
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) assertEquals(expected.getValue(r, c), actual.getValue(r, c), "case " + r + "," + c);
+        }
+    }
+
+    /**
+     * Journal de trois coups ; le dernier enregistrement est tronqué de 1 à 5 octets.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5})
+    void tornLastRecordIsIgnoredThenOverwritten(int missingBytes, @TempDir Path directory) throws IOException {
+        Path file = directory.resolve("partie" + SessionJournal.EXTENSION);
+        BinairoGrid grid = new BinairoGrid(6);
+        try (SessionJournal journal = SessionJournal.create(file, grid)) {
+            journal.recordMove(MoveHistory.pack(0, BinairoGrid.EMPTY, BinairoGrid.ONE));
+            journal.recordMove(MoveHistory.pack(7, BinairoGrid.EMPTY, BinairoGrid.ZERO));
+            journal.recordMove(MoveHistory.pack(35, BinairoGrid.EMPTY, BinairoGrid.ONE));
+        }
+        byte[] data = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(data, data.length - missingBytes));
+
+        BinairoGrid expected = new BinairoGrid(6);
+        expected.setValue(0, 0, BinairoGrid.ONE);
+        expected.setValue(1, 1, BinairoGrid.ZERO);
+        assertSameCells(expected, SessionJournal.replay(file));
+
+        try (SessionJournal resumed = SessionJournal.resume(file)) {
+            assertEquals(2, resumed.getRecordCount());
+            resumed.recordMove(MoveHistory.pack(14, BinairoGrid.EMPTY, BinairoGrid.ONE));
+        }
+        expected.setValue(2, 2, BinairoGrid.ONE);
+        assertSameCells(expected, SessionJournal.replay(file));
+    }
+
+    @Test
+    void corruptedLastRecordIsIgnored(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("partie" + SessionJournal.EXTENSION);
+        try (SessionJournal journal = SessionJournal.create(file, new BinairoGrid(6))) {
+            journal.recordMove(MoveHistory.pack(0, BinairoGrid.EMPTY, BinairoGrid.ONE));
+            journal.recordMove(MoveHistory.pack(7, BinairoGrid.EMPTY, BinairoGrid.ZERO));
+        }
+        byte[] data = Files.readAllBytes(file);
+        data[data.length - 1] ^= 0x5A; // Octet de contrôle du dernier enregistrement
+        Files.write(file, data);
+
+        BinairoGrid expected = new BinairoGrid(6);
+        expected.setValue(0, 0, BinairoGrid.ONE);
+        assertSameCells(expected, SessionJournal.replay(file));
+    }
+
+    /**
+     * Coups, retours et rétablissements aléatoires, avec des compactions en cours de partie.
+     */
+    @Test
+    void randomSessionReplaysToCurrentGrid(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("partie" + SessionJournal.EXTENSION);
+        int n = 10;
+        BinairoGrid grid = new BinairoGrid(n);
+        MoveHistory history = new MoveHistory();
+        Random random = new Random(3);
+        try (SessionJournal journal = SessionJournal.create(file, grid)) {
+            journal.setCompactionThreshold(500);
+            for (int i = 0; i < 5_000; i++) {
+                int kind = random.nextInt(10);
+                if (kind < 6) {
+                    int cell = random.nextInt(n * n);
+                    int old = grid.getValue(cell / n, cell % n);
+                    int value = random.nextInt(3) - 1;
+                    if (value == old) continue;
+                    history.record(cell, old, value);
+                    grid.setValue(cell / n, cell % n, value);
+                    journal.recordMove(MoveHistory.pack(cell, old, value));
+                } else if (kind < 8) {
+                    int delta = history.undo();
+                    if (delta < 0) continue;
+                    int cell = MoveHistory.cellOf(delta);
+                    grid.setValue(cell / n, cell % n, MoveHistory.oldValueOf(delta));
+                    journal.recordUndo(delta);
+                } else {
+                    int delta = history.redo();
+                    if (delta < 0) continue;
+                    int cell = MoveHistory.cellOf(delta);
+                    grid.setValue(cell / n, cell % n, MoveHistory.newValueOf(delta));
+                    journal.recordRedo(delta);
+                }
+            }
+        }
+        assertSameCells(grid, SessionJournal.replay(file));
+    }
+}
@@ -0,0 +1,101 @@
+package com.lsiproject.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SolutionCacheTest {
+
+    /**
+     * Transformée t (0-3 : rotations d'un quart de tour, 4-7 : réflexions), éventuellement complémentée,
+     * calculée indépendamment de SolutionCache.
+     */
+    private static BinairoGrid transform(BinairoGrid grid, int t, boolean complement) {
+        int n = grid.getSize();
+        int m = n - 1;
+        BinairoGrid result = new BinairoGrid(n);
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int[] target;
+                switch (t) {
+                    case 0: target = new int[]{r, c}; break;
+                    case 1: target = new int[]{c, m - r}; break;
+                    case 2: target = new int[]{m - r, m - c}; break;
+                    case 3: target = new int[]{m - c, r}; break;
+                    case 4: target = new int[]{c, r}; break;
+                    case 5: target = new int[]{r, m - c}; break;
+                    case 6: target = new int[]{m - r, c}; break;
+                    default: target = new int[]{m - c, m - r}; break;
+                }
+                int v = grid.getValue(r, c);
+                result.setValue(target[0], target[1], v == BinairoGrid.EMPTY || !complement ? v : 1 - v);
+            }
+        }
+        result.resetDomainsForUnassignedCells();
+        return result;
+    }
+
+    private static void assertSameCells(BinairoGrid expected, BinairoGrid actual) {
+        int n = expected.getSize();
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) assertEquals(expected.getValue(r, c), actual.getValue(r, c), "case " + r + "," + c);
+        }
+    }
+
+    /**
+     * La grille est à solution unique : la solution servie pour chacune des 16 transformées
+     * doit être exactement la transformée de la solution enregistrée.
+     */
+    @ParameterizedTest
+    @CsvSource({"6, 5", "8, 9", "10, 13"})
+    void lookupServesAllSixteenTransforms(int size, long seed) {
+        GridResolution generated = new PuzzleGenerator(seed).generate(size);
+        SolutionCache cache = new SolutionCache(SolutionCache.DEFAULT_MAX_BYTES);
+        cache.put(generated.getInitialGrid(), generated.getSolution());
+
+        for (int t = 0; t < 8; t++) {
+            for (boolean complement : new boolean[]{false, true}) {
+                BinairoGrid served = cache.lookup(transform(generated.getInitialGrid(), t, complement));
+                assertNotNull(served, "transformée " + t + (complement ? " complémentée" : ""));
+                assertSameCells(transform(generated.getSolution(), t, complement), served);
+            }
+        }
+        assertEquals(16, cache.getHits());
+    }
+
+    @Test
+    void otherPuzzleMisses() {
+        GridResolution first = new PuzzleGenerator(1).generate(6);
+        SolutionCache cache = new SolutionCache(SolutionCache.DEFAULT_MAX_BYTES);
+        cache.put(first.getInitialGrid(), first.getSolution());
+        BinairoGrid other = new BinairoGrid(first.getInitialGrid());
+        for (int i = 0; i < 36; i++) {
+            if (other.getValue(i / 6, i % 6) != BinairoGrid.EMPTY) {
+                other.setValue(i / 6, i % 6, BinairoGrid.EMPTY);
+                break;
+            }
+        }
+        other.resetDomainsForUnassignedCells();
+        assertNull(cache.lookup(other));
+    }
+
+    @Test
+    void reloadedFileServesTransforms(@TempDir Path directory) {
+        Path file = directory.resolve("solutions.cache");
+        GridResolution generated = new PuzzleGenerator(3).generate(8);
+        new SolutionCache(SolutionCache.DEFAULT_MAX_BYTES, file).put(generated.getInitialGrid(), generated.getSolution());
+
+        SolutionCache reloaded = new SolutionCache(SolutionCache.DEFAULT_MAX_BYTES, file);
+        assertEquals(1, reloaded.size());
+        BinairoGrid served = reloaded.lookup(transform(generated.getInitialGrid(), 3, true));
+        assertNotNull(served);
+        assertSameCells(transform(generated.getSolution(), 3, true), served);
+    }
+}